@@ -4,6 +4,9 @@ import com.dlightplanner.models.*;
 import com.dlightplanner.models.MultiCityTripRequest.CityLeg;
 import com.dlightplanner.models.MultiCityTripRequest.FlightLeg;
 import com.dlightplanner.services.AirportService;
+import com.dlightplanner.services.DataLoader;
+import com.dlightplanner.services.HotelRateCalendar;
+import com.dlightplanner.services.HotelService;
 import com.dlightplanner.services.LocalCostService;
 import com.dlightplanner.utils.PDFGenerator;
 
@@ -37,6 +40,7 @@ public class BookingSummaryPage extends JFrame {
     
     private AirportService airportService;
     private LocalCostService localCostService;
+    private HotelService hotelService;
     private JFrame previousFrame;
     private boolean isMultiCity;
 
@@ -75,11 +79,10 @@ public class BookingSummaryPage extends JFrame {
             previousFrame.setVisible(false);
         }
         
-        airportService = new AirportService();
-        airportService.loadAirportsFromJson("resources/airports.json");
-        
-        localCostService = new LocalCostService();
-        localCostService.loadLocalCostsFromJson("resources/local_costs.json");
+        DataLoader catalog = DataLoader.getInstance();
+        airportService = catalog.getAirportService();
+        localCostService = catalog.getLocalCostService();
+        hotelService = catalog.getHotelService();
         
         setTitle("Voya | Booking Summary");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -97,27 +100,14 @@ public class BookingSummaryPage extends JFrame {
     }
     
     private String getCityName(String code) {
-        return airportService.getAirports().stream()
-                .filter(airport -> airport.getIata().equalsIgnoreCase(code))
-                .map(Airport::getCity)
-                .findFirst()
-                .orElse(code);
+        return airportService.getCityName(code);
     }
     
     /**
-     * Find a flight for the given leg by matching leg attributes (fromCode, toCode, date)
-     * instead of object reference, since FlightLeg doesn't override equals/hashCode
+     * Find the flight selected for the given leg (FlightLeg compares by fromCode, toCode and date)
      */
     private Flight findFlightForLeg(FlightLeg leg) {
-        for (Map.Entry<FlightLeg, Flight> entry : selectedFlights.entrySet()) {
-            FlightLeg key = entry.getKey();
-            if (key.getFromCode().equals(leg.getFromCode()) &&
-                key.getToCode().equals(leg.getToCode()) &&
-                key.getDate().equals(leg.getDate())) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        return selectedFlights.get(leg);
     }
     
     private JPanel buildHeaderPanel() {
@@ -329,15 +319,15 @@ public class BookingSummaryPage extends JFrame {
             return 0;
         }
         
-        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
-        if (nights < 1) nights = 1;
-        
-        double pricePerNight = hotel.getPricePerNight();
-        double total = pricePerNight * nights;
+        HotelRateCalendar.StayQuote quote = hotelService.quoteStay(hotel, checkIn, checkOut);
+        double total = quote.getTotalPrice();
         
         addCostRow(panel, "Hotel: " + hotel.getName(), 0);
-        addCostRow(panel, "  Price per night", pricePerNight);
-        addCostRow(panel, "  Number of nights", nights);
+        addCostRow(panel, "  Avg. price per night", quote.getAverageNightlyRate());
+        addCostRow(panel, "  Number of nights", quote.getNights());
+        if (!quote.isAvailable()) {
+            addCostRow(panel, "  Sold out nights: " + quote.getSoldOutNights().size(), 0);
+        }
         addCostRow(panel, "Total Hotel Cost", total, true);
         
         return total;
@@ -416,15 +406,12 @@ public class BookingSummaryPage extends JFrame {
             Hotel hotel = selectedHotels.get(destCode);
             
             if (hotel != null) {
-                long nights = ChronoUnit.DAYS.between(city.getArrivalDate(), city.getDepartureDate());
-                if (nights < 1) nights = 1;
-                
-                double pricePerNight = hotel.getPricePerNight();
-                double hotelTotal = pricePerNight * nights;
+                HotelRateCalendar.StayQuote quote = hotelService.quoteStay(hotel, city.getArrivalDate(), city.getDepartureDate());
+                double hotelTotal = quote.getTotalPrice();
                 
                 addCostRow(panel, "City " + (i + 1) + ": " + getCityName(destCode), 0);
                 addCostRow(panel, "  Hotel: " + hotel.getName(), 0);
-                addCostRow(panel, "  Nights: " + nights, 0);
+                addCostRow(panel, "  Nights: " + quote.getNights(), 0);
                 addCostRow(panel, "  Total: ₹" + String.format("%,.0f", hotelTotal), hotelTotal);
                 total += hotelTotal;
             }
@@ -1,6 +1,7 @@
 package com.dlightplanner.gui;
 
 import com.dlightplanner.models.City;
+import com.dlightplanner.utils.ImageUtils;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
@@ -222,24 +223,11 @@ public class CityDetailPage extends JFrame {
         int panelWidth = 300;
         int panelHeight = 250;
         
-        try {
-            ImageIcon icon = new ImageIcon(imagePath);
-            if (icon.getIconWidth() > 0) {
-
-                Image scaledImage = icon.getImage().getScaledInstance(panelWidth, panelHeight, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-            } else {
-
-                imageLabel.setText("Image not available");
-                imageLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
-                imageLabel.setForeground(new Color(150, 150, 150));
-            }
-        } catch (Exception e) {
-
+        ImageUtils.loadInto(imageLabel, imagePath, panelWidth, panelHeight, () -> {
             imageLabel.setText("Image not available");
             imageLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
             imageLabel.setForeground(new Color(150, 150, 150));
-        }
+        });
 
         imageLabel.setBorder(null);
         imageLabel.setPreferredSize(new Dimension(panelWidth, panelHeight));
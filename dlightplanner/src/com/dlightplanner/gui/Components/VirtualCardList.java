@@ -0,0 +1,277 @@
+package com.dlightplanner.gui.Components;
+
+import javax.swing.*;
+import javax.swing.event.ChangeListener;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Virtual Card List - a vertical list of cards for a JScrollPane that only creates the
+ * cards in (or near) the visible part of the list.
+ *
+ * Cards are built by the factory when their row scrolls into view and laid out at the full
+ * width of the list, separated by the gap. Cards that scroll out are removed from the panel
+ * and kept in a small LRU so scrolling back reuses them; everything else is left to the
+ * GC, so the component count stays proportional to the viewport, not the item count.
+ * Rows not built yet take the height of the first card until they are measured.
+ *
+ * The factory must build a card from the item and the page's state alone, since a card
+ * can be rebuilt at any time; call refresh() after changing that state.
+ */
+public class VirtualCardList<T> extends JPanel implements Scrollable {
+    private static final int OVERSCAN = 400;        // px realized above and below the viewport
+    private static final int DEFAULT_ROW_HEIGHT = 200;
+    private static final int RECYCLED_CARDS = 24;   // off-screen cards kept for scrolling back
+
+    private final Function<T, JComponent> cardFactory;
+    private final int gap;
+
+    private List<T> items = new ArrayList<>();
+    private JComponent emptyState;
+
+    private int[] heights = new int[0];             // measured card heights, -1 if not built yet
+    private int[] offsets = new int[1];             // top of each row; offsets[n] = total height
+    private int estimatedHeight = DEFAULT_ROW_HEIGHT;
+    private boolean estimated;
+    private boolean offsetsDirty;
+
+    private final Map<Integer, JComponent> realized = new HashMap<>();
+    private final LinkedHashMap<Integer, JComponent> recycled = new LinkedHashMap<>(32, 0.75f, true);
+    private int builtCards;
+
+    private JViewport viewport;
+    private final ChangeListener scrollListener = e -> updateVisibleCards();
+
+    public VirtualCardList(Function<T, JComponent> cardFactory, int gap) {
+        super(null);
+        this.cardFactory = cardFactory;
+        this.gap = gap;
+        setOpaque(false);
+    }
+
+    /**
+     * Show the items; every card is rebuilt when it comes into view. emptyState is shown
+     * when there are no items.
+     */
+    public void setItems(List<T> items, JComponent emptyState) {
+        this.emptyState = emptyState;
+        if (items.equals(this.items)) {
+            refresh(); // same rows: keep the measured heights
+            return;
+        }
+        this.items = new ArrayList<>(items);
+        heights = new int[this.items.size()];
+        Arrays.fill(heights, -1);
+        offsets = new int[this.items.size() + 1];
+        estimatedHeight = DEFAULT_ROW_HEIGHT;
+        estimated = false;
+        offsetsDirty = true;
+        refresh();
+    }
+
+    /**
+     * Rebuild the cards, e.g. after a selection changed; the scroll position is kept
+     */
+    public void refresh() {
+        removeAll();
+        realized.clear();
+        recycled.clear();
+        if (items.isEmpty() && emptyState != null) {
+            add(emptyState);
+        }
+        revalidate();
+        repaint();
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Cards created since the list was constructed
+     */
+    public int getBuiltCardCount() {
+        return builtCards;
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (getParent() instanceof JViewport) {
+            viewport = (JViewport) getParent();
+            viewport.addChangeListener(scrollListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (viewport != null) {
+            viewport.removeChangeListener(scrollListener);
+            viewport = null;
+        }
+        super.removeNotify();
+    }
+
+    @Override
+    public void doLayout() {
+        updateVisibleCards();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (items.isEmpty()) {
+            Dimension empty = emptyState != null ? emptyState.getPreferredSize() : new Dimension(0, 0);
+            return new Dimension(empty.width, empty.height);
+        }
+        updateOffsets();
+        int width = 0;
+        for (JComponent card : realized.values()) {
+            width = Math.max(width, card.getPreferredSize().width);
+        }
+        return new Dimension(width, offsets[items.size()]);
+    }
+
+    /**
+     * Build the cards that overlap the viewport (plus OVERSCAN), drop the others, and lay
+     * them out; repeats while newly measured heights move the visible range
+     */
+    private void updateVisibleCards() {
+        if (items.isEmpty()) {
+            if (emptyState != null) {
+                emptyState.setBounds(0, 0, getWidth(), emptyState.getPreferredSize().height);
+            }
+            return;
+        }
+
+        Rectangle visible = getVisibleRect();
+        int top = visible.y - OVERSCAN;
+        int bottom = visible.y + Math.max(visible.height, DEFAULT_ROW_HEIGHT) + OVERSCAN;
+        int totalBefore = offsets[items.size()];
+
+        for (int pass = 0; pass < 3; pass++) {
+            updateOffsets();
+            int first = rowAt(Math.max(0, top));
+            int last = rowAt(bottom);
+
+            Iterator<Map.Entry<Integer, JComponent>> it = realized.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Integer, JComponent> entry = it.next();
+                if (entry.getKey() < first || entry.getKey() > last) {
+                    remove(entry.getValue());
+                    recycle(entry.getKey(), entry.getValue());
+                    it.remove();
+                }
+            }
+
+            boolean measured = false;
+            for (int i = first; i <= last; i++) {
+                if (!realized.containsKey(i)) {
+                    JComponent card = recycled.remove(i);
+                    if (card == null) {
+                        card = cardFactory.apply(items.get(i));
+                        builtCards++;
+                    }
+                    realized.put(i, card);
+                    add(card);
+                }
+                int height = realized.get(i).getPreferredSize().height;
+                if (heights[i] != height) {
+                    if (!estimated) {
+                        estimatedHeight = height;
+                        estimated = true;
+                    }
+                    heights[i] = height;
+                    offsetsDirty = true;
+                    measured = true;
+                }
+            }
+            if (!measured) {
+                break;
+            }
+        }
+
+        updateOffsets();
+        int width = getWidth();
+        for (Map.Entry<Integer, JComponent> entry : realized.entrySet()) {
+            int i = entry.getKey();
+            entry.getValue().setBounds(0, offsets[i], width, offsets[i + 1] - offsets[i] - gap);
+            entry.getValue().validate();
+        }
+        if (offsets[items.size()] != totalBefore) {
+            // Heights changed: let the scroll pane pick up the new preferred size
+            SwingUtilities.invokeLater(this::revalidate);
+        }
+        repaint();
+    }
+
+    private void recycle(int index, JComponent card) {
+        recycled.put(index, card);
+        if (recycled.size() > RECYCLED_CARDS) {
+            Iterator<Integer> eldest = recycled.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void updateOffsets() {
+        if (!offsetsDirty) {
+            return;
+        }
+        int y = 0;
+        for (int i = 0; i < heights.length; i++) {
+            offsets[i] = y;
+            y += (heights[i] >= 0 ? heights[i] : estimatedHeight) + gap;
+        }
+        offsets[heights.length] = y;
+        offsetsDirty = false;
+    }
+
+    /**
+     * Index of the row containing y, clamped to the list
+     */
+    private int rowAt(int y) {
+        int low = 0;
+        int high = items.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= y) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -1,15 +1,19 @@
 package com.dlightplanner.gui;
 
+import com.dlightplanner.gui.Components.VirtualCardList;
 import com.dlightplanner.models.Flight;
 import com.dlightplanner.models.FlightSearchRequest;
 import com.dlightplanner.models.MultiCityTripRequest.FlightLeg;
+import com.dlightplanner.services.DataLoader;
 import com.dlightplanner.services.FlightService;
+import com.dlightplanner.utils.ImageUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,14 +23,15 @@ public class FlightPage extends JFrame {
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("EEE, dd MMM");
 
-    private final FlightService flightService = new FlightService();
+    private final FlightService flightService = DataLoader.getInstance().getFlightService();
     private final FlightSearchRequest request;
 
     private final double travelerUnits;
     private final String passengerSummary;
     private boolean selectingReturn;
 
-    private JPanel flightListPanel;
+    private VirtualCardList<Flight> flightListPanel;
+    private boolean showingReturnFlights; // segment of the flights in flightListPanel
     private JLabel flightSummaryLabel;
     private JButton primaryButton;
     private JButton secondaryButton;
@@ -206,21 +211,12 @@ public class FlightPage extends JFrame {
     }
 
     private double getCheapestPriceForDate(LocalDate date) {
-        List<Flight> flights = flightService.searchFlights(
+        double[] calendar = flightService.fareCalendar(
                 selectingReturn ? request.getDestinationCode() : request.getOriginCode(),
                 selectingReturn ? request.getOriginCode() : request.getDestinationCode(),
-                date,
-                10
+                YearMonth.from(date)
         );
-
-        if (flights == null || flights.isEmpty()) {
-            return 0;
-        }
-
-        return flights.stream()
-                .mapToDouble(Flight::getFare)
-                .min()
-                .orElse(0);
+        return calendar[date.getDayOfMonth() - 1];
     }
 
     private void selectDate(LocalDate date) {
@@ -232,7 +228,7 @@ public class FlightPage extends JFrame {
                     request.getDestinationCode(),
                     request.getOriginCode(),
                     date,
-                    10
+                    FlightService.FLIGHTS_PER_SEARCH
             );
             renderFlightResults(returnFlights, true);
         } else {
@@ -240,7 +236,7 @@ public class FlightPage extends JFrame {
                     request.getOriginCode(),
                     request.getDestinationCode(),
                     date,
-                    10
+                    FlightService.FLIGHTS_PER_SEARCH
             );
             renderFlightResults(outboundFlights, false);
         }
@@ -277,9 +273,7 @@ public class FlightPage extends JFrame {
             }
         }
         
-        flightListPanel = new JPanel();
-        flightListPanel.setLayout(new BoxLayout(flightListPanel, BoxLayout.Y_AXIS));
-        flightListPanel.setOpaque(false);
+        flightListPanel = new VirtualCardList<>(this::createFlightCard, 12);
 
         JScrollPane scrollPane = new JScrollPane(flightListPanel);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
@@ -334,11 +328,20 @@ public class FlightPage extends JFrame {
     }
 
     private void fetchOutboundFlights() {
+        if (previousFrame instanceof MultiCityFlowPage) {
+            // Later multi-city legs are searched in the background; fall back if not done yet
+            MultiCityFlowPage multiCityPage = (MultiCityFlowPage) previousFrame;
+            List<Flight> legFlights = multiCityPage.getFlightsForLeg(multiCityPage.getCurrentFlightLeg());
+            if (legFlights != null) {
+                outboundFlights = legFlights;
+                return;
+            }
+        }
         outboundFlights = flightService.searchFlights(
                 request.getOriginCode(),
                 request.getDestinationCode(),
                 currentSelectedDate,
-                10
+                FlightService.FLIGHTS_PER_SEARCH
         );
     }
 
@@ -351,7 +354,7 @@ public class FlightPage extends JFrame {
                 request.getDestinationCode(),
                 request.getOriginCode(),
                 request.getReturnDate(),
-                10
+                FlightService.FLIGHTS_PER_SEARCH
         );
     }
 
@@ -367,26 +370,22 @@ public class FlightPage extends JFrame {
         flightSummaryLabel.setText(String.format("%s flights • %s • %s • %s",
                 legLabel, route, dateString, passengerSummary));
 
-        flightListPanel.removeAll();
-        if (flights == null || flights.isEmpty()) {
-            JLabel emptyState = new JLabel("No flights available for this leg right now.");
-            emptyState.setBorder(new EmptyBorder(40, 0, 40, 0));
-            emptyState.setHorizontalAlignment(SwingConstants.CENTER);
-            flightListPanel.add(emptyState);
-        } else {
-            for (Flight flight : flights) {
-                boolean isSelected = (!isReturnSegment && flight.equals(selectedOutboundFlight))
-                        || (isReturnSegment && flight.equals(selectedReturnFlight));
-                flightListPanel.add(buildFlightCard(flight, isSelected, () -> selectFlight(flight)));
-                flightListPanel.add(Box.createVerticalStrut(12));
-            }
-        }
+        JLabel emptyState = new JLabel("No flights available for this leg right now.");
+        emptyState.setBorder(new EmptyBorder(40, 0, 40, 0));
+        emptyState.setHorizontalAlignment(SwingConstants.CENTER);
 
-        flightListPanel.revalidate();
-        flightListPanel.repaint();
+        // Cards are built as they scroll into view
+        showingReturnFlights = isReturnSegment;
+        flightListPanel.setItems(flights != null ? flights : new ArrayList<>(), emptyState);
         updateActionButtons();
     }
 
+    private JPanel createFlightCard(Flight flight) {
+        boolean isSelected = (!showingReturnFlights && flight.equals(selectedOutboundFlight))
+                || (showingReturnFlights && flight.equals(selectedReturnFlight));
+        return buildFlightCard(flight, isSelected, () -> selectFlight(flight));
+    }
+
     private JPanel buildFlightCard(Flight flight, boolean isSelected, Runnable onSelect) {
         JPanel card = new JPanel(new BorderLayout(10, 0));
         card.setBorder(BorderFactory.createCompoundBorder(
@@ -680,21 +679,14 @@ public class FlightPage extends JFrame {
     }
 
     private JLabel createAirlineLogo(String airline) {
-        String logoPath = getAirlineLogoPath(airline);
-        ImageIcon logoIcon = new ImageIcon(logoPath);
-        
-        if (logoIcon.getIconWidth() > 0 && logoIcon.getIconHeight() > 0) {
-            Image scaled = logoIcon.getImage().getScaledInstance(90, 60, Image.SCALE_SMOOTH);
-            JLabel label = new JLabel(new ImageIcon(scaled));
-            label.setHorizontalAlignment(SwingConstants.CENTER);
-            return label;
-        } else {
-            JLabel fallback = new JLabel(airline);
-            fallback.setFont(new Font("SansSerif", Font.PLAIN, 9));
-            fallback.setHorizontalAlignment(SwingConstants.CENTER);
-            fallback.setBorder(BorderFactory.createDashedBorder(new Color(200, 200, 200)));
-            return fallback;
-        }
+        JLabel label = new JLabel();
+        label.setHorizontalAlignment(SwingConstants.CENTER);
+        ImageUtils.loadInto(label, getAirlineLogoPath(airline), 90, 60, () -> {
+            label.setText(airline);
+            label.setFont(new Font("SansSerif", Font.PLAIN, 9));
+            label.setBorder(BorderFactory.createDashedBorder(new Color(200, 200, 200)));
+        });
+        return label;
     }
 
     private String getAirlineLogoPath(String airline) {
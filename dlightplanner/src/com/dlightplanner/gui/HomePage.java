@@ -6,8 +6,14 @@ import com.dlightplanner.models.Airport;
 import com.dlightplanner.models.City;
 import com.dlightplanner.models.FlightSearchRequest;
 import com.dlightplanner.models.MultiCityTripRequest;
+import com.dlightplanner.services.AirportSearchIndex;
 import com.dlightplanner.services.AirportService;
 import com.dlightplanner.services.CityService;
+import com.dlightplanner.services.DataLoader;
+import com.dlightplanner.services.ImagePathResolver;
+import com.dlightplanner.services.TripDateOptimizer;
+import com.dlightplanner.services.TripDateOptimizer.OptimizedTrip;
+import com.dlightplanner.utils.ImageUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -18,12 +24,21 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 
 public class HomePage extends JFrame {
 
+    private static final int AUTOCOMPLETE_DEBOUNCE_MS = 120;
+    private static final int MAX_AUTOCOMPLETE_RESULTS = 50;
+    private static final int FLEXIBLE_DATE_OPTIONS = 3;
+    private static final long FLEXIBLE_DATE_BUDGET_MS = 250;
+    private static final DateTimeFormatter SHORT_DATE = DateTimeFormatter.ofPattern("dd MMM");
+
     private AirportService airportService;
     private CityService cityService;
+    private ImagePathResolver imagePaths;
 
     private JComboBox<String> originCombo;
     private JComboBox<String> destinationCombo;
@@ -31,6 +46,7 @@ public class HomePage extends JFrame {
     private DatePickerField startDatePicker, returnDatePicker;
     private TravellersDropdown travellersDropdown;
     private List<String> airportOptions;
+    private AirportSearchIndex airportIndex;
     private float gradientProgress = 0.0f;
     
     private JPanel multiCityPanel;
@@ -38,6 +54,7 @@ public class HomePage extends JFrame {
     private List<DestinationRow> destinationRows;
     private JComboBox<String> originComboMulti;
     private TravellersDropdown multiCityTravellers;
+    private JComboBox<String> flexDaysCombo;
 
     public HomePage() {
         setTitle("Voya - Trip Planner");
@@ -55,12 +72,13 @@ public class HomePage extends JFrame {
             }
         });
 
-        airportService = new AirportService();
-        airportService.loadAirportsFromJson("resources/airports.json");
+        DataLoader catalog = DataLoader.getInstance();
+        airportService = catalog.getAirportService();
         airportOptions = buildAirportOptions();
+        airportIndex = airportService.getSearchIndex();
 
-        cityService = new CityService();
-        cityService.loadCitiesFromJson("resources/cities.json");
+        cityService = catalog.getCityService();
+        imagePaths = catalog.getImagePathResolver();
 
         ThemedBackgroundPanel bgPanel = new ThemedBackgroundPanel();
         bgPanel.setLayout(new BorderLayout());
@@ -207,7 +225,7 @@ public class HomePage extends JFrame {
         JPanel originPanel = createFieldBox("From", "Origin");
         originCombo = new JComboBox<>(new DefaultComboBoxModel<>(airportOptions.toArray(new String[0])));
         originCombo.setEditable(true);
-        enableAutoComplete(originCombo, airportOptions);
+        enableAutoComplete(originCombo);
         originCombo.setSelectedIndex(-1);
         ((JTextComponent) originCombo.getEditor().getEditorComponent()).setText("");
         styleComboBox(originCombo);
@@ -217,7 +235,7 @@ public class HomePage extends JFrame {
         JPanel destPanel = createFieldBox("To", "Destination");
         destinationCombo = new JComboBox<>(new DefaultComboBoxModel<>(airportOptions.toArray(new String[0])));
         destinationCombo.setEditable(true);
-        enableAutoComplete(destinationCombo, airportOptions);
+        enableAutoComplete(destinationCombo);
         destinationCombo.setSelectedIndex(-1);
         ((JTextComponent) destinationCombo.getEditor().getEditorComponent()).setText("");
         styleComboBox(destinationCombo);
@@ -370,7 +388,7 @@ public class HomePage extends JFrame {
         JPanel originPanel = createFieldBox("From", "Origin");
         originComboMulti = new JComboBox<>(new DefaultComboBoxModel<>(airportOptions.toArray(new String[0])));
         originComboMulti.setEditable(true);
-        enableAutoComplete(originComboMulti, airportOptions);
+        enableAutoComplete(originComboMulti);
         originComboMulti.setSelectedIndex(-1);
         ((JTextComponent) originComboMulti.getEditor().getEditorComponent()).setText("");
         styleComboBox(originComboMulti);
@@ -382,6 +400,12 @@ public class HomePage extends JFrame {
         travellersPanel.add(multiCityTravellers, BorderLayout.CENTER);
         firstLine.add(travellersPanel);
 
+        JPanel flexPanel = createFieldBox("Flexible Dates", "Exact");
+        flexDaysCombo = new JComboBox<>(new String[]{"Exact dates", "± 1 day", "± 2 days", "± 3 days"});
+        styleComboBox(flexDaysCombo);
+        flexPanel.add(flexDaysCombo, BorderLayout.CENTER);
+        firstLine.add(flexPanel);
+
         JButton searchButton = createSearchButton("Search Flights");
         searchButton.addActionListener(e -> handleMultiCitySearch());
         firstLine.add(searchButton);
@@ -456,7 +480,7 @@ public class HomePage extends JFrame {
             JPanel destPanel = createFieldBox("To", "Destination");
             destinationCombo = new JComboBox<>(new DefaultComboBoxModel<>(airportOptions.toArray(new String[0])));
             destinationCombo.setEditable(true);
-            enableAutoComplete(destinationCombo, airportOptions);
+            enableAutoComplete(destinationCombo);
             destinationCombo.setSelectedIndex(-1);
             ((JTextComponent) destinationCombo.getEditor().getEditorComponent()).setText("");
             styleComboBox(destinationCombo);
@@ -502,52 +526,59 @@ public class HomePage extends JFrame {
         return options;
     }
 
-    private void enableAutoComplete(JComboBox<String> comboBox, List<String> masterOptions) {
+    /**
+     * Filter the combo box as the user types, using the airport search index. Input is
+     * debounced, so a burst of keystrokes runs one search.
+     */
+    private void enableAutoComplete(JComboBox<String> comboBox) {
         JTextComponent editor = (JTextComponent) comboBox.getEditor().getEditorComponent();
 
         DocumentListener listener = new DocumentListener() {
             private boolean adjusting;
+            private final javax.swing.Timer debounce = new javax.swing.Timer(AUTOCOMPLETE_DEBOUNCE_MS, e -> filterOptions());
+
+            {
+                debounce.setRepeats(false);
+            }
 
             @Override
             public void insertUpdate(DocumentEvent e) {
-                filterOptions();
+                scheduleFilter();
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
-                filterOptions();
+                scheduleFilter();
             }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
-                filterOptions();
+                scheduleFilter();
+            }
+
+            private void scheduleFilter() {
+                if (!adjusting) {
+                    debounce.restart();
+                }
             }
 
             private void filterOptions() {
-                if (adjusting) return;
                 adjusting = true;
-                SwingUtilities.invokeLater(() -> {
-                    String typedText = editor.getText();
-                    String lower = typedText.toLowerCase();
-
-                    DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
-                    for (String option : masterOptions) {
-                        if (option.toLowerCase().contains(lower)) {
-                            model.addElement(option);
-                        }
-                    }
-                    comboBox.setModel(model);
-                    comboBox.setSelectedItem(null);
-                    editor.setText(typedText);
-                    editor.setCaretPosition(typedText.length());
-
-                    if (!typedText.isEmpty() && model.getSize() > 0) {
-                        comboBox.showPopup();
-                    } else {
-                        comboBox.hidePopup();
-                    }
-                    adjusting = false;
-                });
+                String typedText = editor.getText();
+
+                DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>(
+                        airportIndex.search(typedText, MAX_AUTOCOMPLETE_RESULTS).toArray(new String[0]));
+                comboBox.setModel(model);
+                comboBox.setSelectedItem(null);
+                editor.setText(typedText);
+                editor.setCaretPosition(typedText.length());
+
+                if (!typedText.isEmpty() && model.getSize() > 0) {
+                    comboBox.showPopup();
+                } else {
+                    comboBox.hidePopup();
+                }
+                adjusting = false;
             }
         };
 
@@ -687,7 +718,97 @@ public class HomePage extends JFrame {
                 infants
         );
 
-        new MultiCityFlowPage(request, this);
+        int flexDays = flexDaysCombo.getSelectedIndex();
+        if (flexDays > 0) {
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            new FlexibleDatesWorker(request, flexDays).execute();
+        } else {
+            new MultiCityFlowPage(request, this);
+        }
+    }
+
+    /**
+     * Looks for cheaper flight + hotel dates within +/- flexDays of the chosen dates off
+     * the EDT, then lets the user pick one of the cheapest trips or keep their own dates.
+     * Each stay stays within flexDays nights of the stay the user chose.
+     */
+    private class FlexibleDatesWorker extends SwingWorker<List<OptimizedTrip>, Void> {
+        private final MultiCityTripRequest request;
+        private final int flexDays;
+        private OptimizedTrip chosenDates; // the user's own dates priced, if they are feasible
+
+        FlexibleDatesWorker(MultiCityTripRequest request, int flexDays) {
+            this.request = request;
+            this.flexDays = flexDays;
+        }
+
+        @Override
+        protected List<OptimizedTrip> doInBackground() {
+            DataLoader catalog = DataLoader.getInstance();
+            TripDateOptimizer optimizer = new TripDateOptimizer(catalog.getFlightService(), catalog.getHotelService());
+
+            long start = System.nanoTime();
+            List<OptimizedTrip> own = optimizer.optimize(request, 0, 1, FLEXIBLE_DATE_BUDGET_MS);
+            chosenDates = own.isEmpty() ? null : own.get(0);
+            List<OptimizedTrip> trips = optimizer.optimize(request, flexDays, FLEXIBLE_DATE_OPTIONS,
+                    FLEXIBLE_DATE_BUDGET_MS);
+            System.out.println("Flexible dates (+/- " + flexDays + " days) for " + request.getCityLegs().size()
+                    + " cities in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return trips;
+        }
+
+        @Override
+        protected void done() {
+            setCursor(Cursor.getDefaultCursor());
+            List<OptimizedTrip> trips;
+            try {
+                trips = get();
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Error searching flexible dates: " + e.getMessage());
+                e.printStackTrace();
+                trips = new ArrayList<>();
+            }
+            if (trips.isEmpty()) {
+                new MultiCityFlowPage(request, HomePage.this);
+                return;
+            }
+
+            List<MultiCityTripRequest> choices = new ArrayList<>();
+            List<String> labels = new ArrayList<>();
+            String ownDates = describeDates(request);
+            choices.add(request);
+            labels.add("Your dates: " + ownDates + (chosenDates != null ? describeCost(chosenDates) : ""));
+            for (OptimizedTrip trip : trips) {
+                String dates = describeDates(trip.getRequest());
+                if (!dates.equals(ownDates)) {
+                    choices.add(trip.getRequest());
+                    labels.add(dates + describeCost(trip));
+                }
+            }
+
+            Object picked = JOptionPane.showInputDialog(HomePage.this,
+                    "Cheapest dates within ± " + flexDays + " day(s), with the cheapest hotel in each city:",
+                    "Flexible Dates", JOptionPane.PLAIN_MESSAGE, null, labels.toArray(), labels.get(labels.size() > 1 ? 1 : 0));
+            if (picked != null) {
+                new MultiCityFlowPage(choices.get(labels.indexOf(picked)), HomePage.this);
+            }
+        }
+    }
+
+    private String describeDates(MultiCityTripRequest request) {
+        StringBuilder dates = new StringBuilder();
+        for (MultiCityTripRequest.CityLeg city : request.getCityLegs()) {
+            dates.append(city.getDestinationCode()).append(' ')
+                    .append(city.getArrivalDate().format(SHORT_DATE)).append(", ");
+        }
+        List<MultiCityTripRequest.CityLeg> cities = request.getCityLegs();
+        return dates.append("leave ").append(cities.get(cities.size() - 1).getDepartureDate().format(SHORT_DATE))
+                .toString();
+    }
+
+    private String describeCost(OptimizedTrip trip) {
+        return String.format(" - ₹%,.0f (flights ₹%,.0f + hotels ₹%,.0f)",
+                trip.getTotalCost(), trip.getFlightCost(), trip.getHotelCost());
     }
 
     private String extractIataCode(String displayValue) {
@@ -790,9 +911,8 @@ public class HomePage extends JFrame {
         nameLabel.setForeground(new Color(50, 60, 80));
         nameLabel.setBorder(new EmptyBorder(8, 5, 8, 5)); // Better spacing around text
 
-        ImageIcon icon = new ImageIcon("resources/images/" + city.getImagePath());
-
-        JLabel imageLabel = new JLabel(new ImageIcon(icon.getImage().getScaledInstance(200, 150, Image.SCALE_SMOOTH)));
+        JLabel imageLabel = new JLabel();
+        ImageUtils.loadInto(imageLabel, imagePaths.resolve(city), 200, 150, null);
         imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
         card.add(imageLabel, BorderLayout.CENTER);
@@ -886,6 +1006,7 @@ public class HomePage extends JFrame {
     }
 
     public static void main(String[] args) {
+        DataLoader.preload();
         SwingUtilities.invokeLater(HomePage::new);
     }
 }
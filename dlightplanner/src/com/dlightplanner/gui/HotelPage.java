@@ -1,8 +1,14 @@
 package com.dlightplanner.gui;
 
+import com.dlightplanner.gui.Components.VirtualCardList;
 import com.dlightplanner.models.Hotel;
 import com.dlightplanner.services.AirportService;
+import com.dlightplanner.services.DataLoader;
+import com.dlightplanner.services.HotelQueryEngine;
+import com.dlightplanner.services.HotelRateCalendar;
 import com.dlightplanner.services.HotelService;
+import com.dlightplanner.services.ImagePathResolver;
+import com.dlightplanner.utils.ImageUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -12,24 +18,25 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class HotelPage extends JFrame {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
     
     private final HotelService hotelService;
     private final AirportService airportService;
+    private final ImagePathResolver imagePaths;
     private final String destinationCode;
     private final LocalDate checkInDate;
     private final LocalDate checkOutDate;
     private final int numberOfNights;
     
-    private JPanel hotelListPanel;
+    private VirtualCardList<Hotel> hotelListPanel;
     private JPanel breakdownPanel;
     private JPanel contentPanel;
     private JSplitPane splitPane;
     private List<Hotel> allHotels;
     private List<Hotel> filteredHotels;
+    private HotelQueryEngine hotelQueryEngine;
     private Hotel selectedHotel;
     private Map<Integer, Integer> hotelRooms = new HashMap<>(); // hotel ID -> number of rooms
     private Map<Integer, Integer> hotelBeds = new HashMap<>(); // hotel ID -> number of beds
@@ -98,17 +105,15 @@ public class HotelPage extends JFrame {
             previousFrame.setVisible(false);
         }
         
-        hotelService = new HotelService();
-        hotelService.loadHotelsFromJson("resources/hotels.json");
-        
-        airportService = new AirportService();
-        airportService.loadAirportsFromJson("resources/airports.json");
-
-        hotelService.setAirportService(airportService);
+        DataLoader catalog = DataLoader.getInstance();
+        hotelService = catalog.getHotelService();
+        airportService = catalog.getAirportService();
+        imagePaths = catalog.getImagePathResolver();
         
         String cityName = getCityNameFromCode(destinationCode);
         allHotels = hotelService.getHotelsByDestination(destinationCode, checkInDate, checkOutDate);
         filteredHotels = new ArrayList<>(allHotels);
+        hotelQueryEngine = buildQueryEngine();
         
         setTitle("Voya | Select Hotel");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -128,17 +133,20 @@ public class HotelPage extends JFrame {
         add(buildHeaderPanel(cityName), BorderLayout.NORTH);
         add(buildContentPanel(), BorderLayout.CENTER);
         add(buildFooterPanel(), BorderLayout.SOUTH);
+
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                System.out.println(ImageUtils.getStats());
+            }
+        });
         
         renderHotels(filteredHotels);
         setVisible(true);
     }
     
     private String getCityNameFromCode(String code) {
-        return airportService.getAirports().stream()
-                .filter(airport -> airport.getIata().equalsIgnoreCase(code))
-                .map(airport -> airport.getCity())
-                .findFirst()
-                .orElse(code);
+        return airportService.getCityName(code);
     }
     
     private JPanel buildHeaderPanel(String cityName) {
@@ -182,7 +190,11 @@ public class HotelPage extends JFrame {
             currentCheckOutDate = checkInDate.plusDays(newNights);
             sub.setText(String.format("%s • Check-in: %s • Check-out: %s",
                     cityName, checkInDate.format(DATE_FORMAT), currentCheckOutDate.format(DATE_FORMAT)));
-            renderHotels(filteredHotels);
+            if (selectedHotel != null && !currentQuote(selectedHotel).isAvailable()) {
+                cancelHotelSelection(); // the card now shows the hotel as sold out
+            }
+            hotelQueryEngine = buildQueryEngine(); // price filter follows the new stay
+            applyFilters();
 
             if (breakdownShown && selectedHotel != null) {
                 showBreakdownPanel();
@@ -238,9 +250,7 @@ public class HotelPage extends JFrame {
 
         content.add(new JLabel("Amenities:"));
         JPanel amenitiesPanel = new JPanel(new GridLayout(0, 2, 5, 5));
-        Set<String> allAmenities = allHotels.stream()
-                .flatMap(h -> h.getAmenities().stream())
-                .collect(Collectors.toSet());
+        Set<String> allAmenities = hotelQueryEngine.getAmenities();
         List<JCheckBox> amenityCheckboxes = new ArrayList<>();
         for (String amenity : allAmenities) {
             JCheckBox cb = new JCheckBox(amenity);
@@ -304,31 +314,18 @@ public class HotelPage extends JFrame {
         filterDialog.setVisible(true);
     }
     
+    /**
+     * Query engine whose price filter uses the nightly rate shown on the cards for the current stay
+     */
+    private HotelQueryEngine buildQueryEngine() {
+        LocalDate checkOut = currentCheckOutDate != null ? currentCheckOutDate : checkOutDate;
+        return new HotelQueryEngine(allHotels,
+                hotel -> hotelService.quoteStay(hotel, checkInDate, checkOut).getAverageNightlyRate());
+    }
+
     private void applyFilters() {
-        filteredHotels = new ArrayList<>(allHotels);
-        
-        if (starFilter != null) {
-            filteredHotels.removeIf(h -> h.getStarRating() != starFilter);
-        }
-        
-        if (minPrice != null) {
-            filteredHotels.removeIf(h -> h.getPricePerNight() < minPrice);
-        }
-        if (maxPrice != null) {
-            filteredHotels.removeIf(h -> h.getPricePerNight() > maxPrice);
-        }
-        
-        if (maxDistance != null) {
-            filteredHotels.removeIf(h -> h.getDistanceFromCityCenter() > maxDistance);
-        }
-        
-        if (!selectedAmenities.isEmpty()) {
-            filteredHotels.removeIf(h -> {
-                Set<String> hotelAmenities = new HashSet<>(h.getAmenities());
-                return !hotelAmenities.containsAll(selectedAmenities);
-            });
-        }
-        
+        filteredHotels = hotelQueryEngine.query(starFilter, minPrice, maxPrice, maxDistance,
+                selectedAmenities, HotelQueryEngine.SortOrder.LISTED);
         renderHotels(filteredHotels);
     }
     
@@ -336,9 +333,7 @@ public class HotelPage extends JFrame {
         contentPanel = new JPanel(new BorderLayout());
         contentPanel.setBorder(new EmptyBorder(15, 25, 10, 25));
         
-        hotelListPanel = new JPanel();
-        hotelListPanel.setLayout(new BoxLayout(hotelListPanel, BoxLayout.Y_AXIS));
-        hotelListPanel.setOpaque(false);
+        hotelListPanel = new VirtualCardList<>(this::createHotelCard, 15);
         
         JScrollPane scrollPane = new JScrollPane(hotelListPanel);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
@@ -374,22 +369,12 @@ public class HotelPage extends JFrame {
     }
     
     private void renderHotels(List<Hotel> hotels) {
-        hotelListPanel.removeAll();
-        
-        if (hotels.isEmpty()) {
-            JLabel noHotels = new JLabel("No hotels found matching your criteria.");
-            noHotels.setFont(new Font("SansSerif", Font.PLAIN, 14));
-            noHotels.setBorder(new EmptyBorder(20, 0, 20, 0));
-            hotelListPanel.add(noHotels);
-        } else {
-            for (Hotel hotel : hotels) {
-                hotelListPanel.add(createHotelCard(hotel));
-                hotelListPanel.add(Box.createVerticalStrut(15));
-            }
-        }
-        
-        hotelListPanel.revalidate();
-        hotelListPanel.repaint();
+        JLabel noHotels = new JLabel("No hotels found matching your criteria.");
+        noHotels.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        noHotels.setBorder(new EmptyBorder(20, 0, 20, 0));
+
+        // Cards are built as they scroll into view
+        hotelListPanel.setItems(hotels, noHotels);
     }
     
     private JPanel createHotelCard(Hotel hotel) {
@@ -400,14 +385,10 @@ public class HotelPage extends JFrame {
                 new EmptyBorder(15, 15, 15, 15)));
 
         JLabel imageLabel = new JLabel();
-        ImageIcon icon = loadHotelImage(hotel);
-        if (icon != null && icon.getIconWidth() > 0) {
-            Image scaled = icon.getImage().getScaledInstance(250, 180, Image.SCALE_SMOOTH);
-            imageLabel.setIcon(new ImageIcon(scaled));
-        } else {
+        ImageUtils.loadInto(imageLabel, imagePaths.resolve(hotel), 250, 180, () -> {
             imageLabel.setText("No Image");
             imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        }
+        });
         imageLabel.setPreferredSize(new Dimension(250, 180));
         imageLabel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
 
@@ -460,13 +441,14 @@ public class HotelPage extends JFrame {
         int hotelRoomsCount = hotelRooms.getOrDefault(hotel.getId(), 1);
         int hotelBedsCount = hotelBeds.getOrDefault(hotel.getId(), 2);
         
-        double pricePerNight = hotel.getPriceForBeds(hotelBedsCount);
         int currentNights = (Integer) (nightsSpinner != null ? nightsSpinner.getValue() : numberOfNights);
-        double totalPrice = pricePerNight * currentNights * hotelRoomsCount;
+        HotelRateCalendar.StayQuote quote = hotelService.quoteStay(hotel, checkInDate,
+                checkInDate.plusDays(currentNights), hotelRoomsCount, hotelBedsCount);
+        double totalPrice = quote.getTotalPrice();
         
-        JLabel perNightLabel = new JLabel(String.format("₹%,.0f/night", pricePerNight));
+        JLabel perNightLabel = new JLabel();
         perNightLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
-        perNightLabel.setForeground(new Color(100, 100, 100));
+        showNightlyRate(perNightLabel, quote);
         
         JLabel totalLabel = new JLabel(String.format("₹%,.0f total", totalPrice));
         totalLabel.setFont(new Font("SansSerif", Font.BOLD, 18));
@@ -503,8 +485,9 @@ public class HotelPage extends JFrame {
         
         boolean isSelected = selectedHotel != null && selectedHotel.getId() == hotel.getId();
         JButton selectButton = new JButton(isSelected ? "Selected" : "Select Hotel");
-        selectButton.setEnabled(!isSelected);
+        selectButton.setEnabled(!isSelected && quote.isAvailable());
         selectButton.addActionListener(e -> selectHotel(hotel));
+        card.putClientProperty("selectButton", selectButton);
         
         JPanel buttonPanel = new JPanel(new GridLayout(1, isSelected ? 2 : 1, 5, 0));
         buttonPanel.setOpaque(false);
@@ -605,14 +588,16 @@ public class HotelPage extends JFrame {
     }
     
     private void selectHotel(Hotel hotel) {
-        selectedHotel = hotel;
-
         if (!hotelRooms.containsKey(hotel.getId())) {
             hotelRooms.put(hotel.getId(), 1);
         }
         if (!hotelBeds.containsKey(hotel.getId())) {
             hotelBeds.put(hotel.getId(), 2);
         }
+        if (!checkAvailable(hotel)) {
+            return;
+        }
+        selectedHotel = hotel;
         renderHotels(filteredHotels);
         if (confirmButton != null) {
             confirmButton.setEnabled(true);
@@ -628,9 +613,10 @@ public class HotelPage extends JFrame {
     }
     
     private void updateHotelCardPrice(JPanel card, Hotel hotel, int rooms, int beds) {
-        double pricePerNight = hotel.getPriceForBeds(beds);
         int currentNights = (Integer) (nightsSpinner != null ? nightsSpinner.getValue() : numberOfNights);
-        double totalPrice = pricePerNight * currentNights * rooms;
+        HotelRateCalendar.StayQuote quote = hotelService.quoteStay(hotel, checkInDate,
+                checkInDate.plusDays(currentNights), rooms, beds);
+        double totalPrice = quote.getTotalPrice();
         
         JLabel totalLabel = (JLabel) card.getClientProperty("totalLabel");
         JLabel perNightLabel = (JLabel) card.getClientProperty("perNightLabel");
@@ -640,7 +626,16 @@ public class HotelPage extends JFrame {
             totalLabel.setText(String.format("₹%,.0f total", totalPrice));
         }
         if (perNightLabel != null) {
-            perNightLabel.setText(String.format("₹%,.0f/night", pricePerNight));
+            showNightlyRate(perNightLabel, quote);
+        }
+        JButton selectButton = (JButton) card.getClientProperty("selectButton");
+        boolean isSelected = selectedHotel != null && selectedHotel.getId() == hotel.getId();
+        if (isSelected && !quote.isAvailable()) {
+            cancelHotelSelection(); // re-renders the card as sold out
+            return;
+        }
+        if (selectButton != null) {
+            selectButton.setEnabled(!isSelected && quote.isAvailable());
         }
         if (bedsLabel != null) {
             bedsLabel.setText(String.format("(%d beds)", beds));
@@ -650,11 +645,49 @@ public class HotelPage extends JFrame {
         card.repaint();
     }
     
+    /**
+     * Quote for the hotel with the rooms, beds and nights currently chosen on the page
+     */
+    private HotelRateCalendar.StayQuote currentQuote(Hotel hotel) {
+        int nights = (Integer) (nightsSpinner != null ? nightsSpinner.getValue() : numberOfNights);
+        return hotelService.quoteStay(hotel, checkInDate, checkInDate.plusDays(nights),
+                hotelRooms.getOrDefault(hotel.getId(), 1), hotelBeds.getOrDefault(hotel.getId(), 2));
+    }
+
+    /**
+     * True if the hotel has the chosen rooms free on every night; otherwise tells the user why not
+     */
+    private boolean checkAvailable(Hotel hotel) {
+        HotelRateCalendar.StayQuote quote = currentQuote(hotel);
+        if (quote.isAvailable()) {
+            return true;
+        }
+        JOptionPane.showMessageDialog(this,
+                String.format("%s is sold out on %d of %d night(s) for %d room(s).%nTry fewer rooms or a shorter stay.",
+                        hotel.getName(), quote.getSoldOutNights().size(), quote.getNights(), quote.getRooms()),
+                "Sold Out", JOptionPane.WARNING_MESSAGE);
+        return false;
+    }
+
+    private void showNightlyRate(JLabel label, HotelRateCalendar.StayQuote quote) {
+        if (quote.isAvailable()) {
+            label.setText(String.format("₹%,.0f/night", quote.getAverageNightlyRate()));
+            label.setForeground(new Color(100, 100, 100));
+        } else {
+            label.setText(String.format("Sold out %d of %d night(s)", quote.getSoldOutNights().size(), quote.getNights()));
+            label.setForeground(new Color(200, 40, 40));
+        }
+    }
+    
     private void confirmHotelSelection() {
         if (selectedHotel == null) {
             JOptionPane.showMessageDialog(this, "Please select a hotel to continue.", "No Hotel Selected", JOptionPane.WARNING_MESSAGE);
             return;
         }
+        if (!checkAvailable(selectedHotel)) {
+            cancelHotelSelection();
+            return;
+        }
         
         if (!breakdownShown) {
             showBreakdownPanel();
@@ -669,8 +702,9 @@ public class HotelPage extends JFrame {
         int finalBeds = hotelBeds.getOrDefault(selectedHotel.getId(), 2);
         LocalDate finalCheckOut = currentCheckOutDate != null ? currentCheckOutDate : checkInDate.plusDays(finalNights);
         
-        double pricePerNight = selectedHotel.getPriceForBeds(finalBeds);
-        double totalPrice = pricePerNight * finalNights * finalRooms;
+        HotelRateCalendar.StayQuote quote = hotelService.quoteStay(selectedHotel, checkInDate, finalCheckOut, finalRooms, finalBeds);
+        double pricePerNight = quote.getAverageNightlyRate();
+        double totalPrice = quote.getTotalPrice();
 
         JPanel breakdownContent = buildBreakdownPanel(selectedHotel, finalNights, finalRooms, finalBeds, finalCheckOut, pricePerNight, totalPrice);
         breakdownPanel = breakdownContent;
@@ -770,7 +804,7 @@ public class HotelPage extends JFrame {
 
         JPanel priceSection = createBreakdownSection("Price Breakdown");
         
-        priceSection.add(createDetailRow("Price per night:", String.format("₹%,.0f", pricePerNight)));
+        priceSection.add(createDetailRow("Avg. price per night:", String.format("₹%,.0f", pricePerNight)));
         priceSection.add(createDetailRow("Number of nights:", String.valueOf(nights)));
         priceSection.add(createDetailRow("Number of rooms:", String.valueOf(rooms)));
 
@@ -839,7 +873,7 @@ public class HotelPage extends JFrame {
     }
     
     private void proceedAfterConfirmation() {
-        if (selectedHotel == null) {
+        if (selectedHotel == null || !checkAvailable(selectedHotel)) {
             return;
         }
         
@@ -866,69 +900,4 @@ public class HotelPage extends JFrame {
     public JFrame getPreviousFrame() {
         return previousFrame;
     }
-    
-    /**
-     * Load hotel image with fallback options for different file naming conventions
-     */
-    private ImageIcon loadHotelImage(Hotel hotel) {
-        String imagePath = hotel.getImagePath();
-        if (imagePath == null || imagePath.isEmpty()) {
-            return null;
-        }
-        
-        String[] extensions = {".jpg", ".JPG", ".jpeg", ".JPEG", ".png", ".PNG"};
-
-        String fullPath = "resources/images/" + imagePath;
-        ImageIcon icon = new ImageIcon(fullPath);
-        if (icon.getIconWidth() > 0 && icon.getIconHeight() > 0) {
-            return icon;
-        }
-
-        try {
-            String basePath = fullPath.substring(0, fullPath.lastIndexOf('.'));
-            for (String ext : extensions) {
-                icon = new ImageIcon(basePath + ext);
-                if (icon.getIconWidth() > 0 && icon.getIconHeight() > 0) {
-                    return icon;
-                }
-            }
-        } catch (Exception e) {
-
-        }
-
-        if (imagePath.contains("/")) {
-            try {
-                String[] parts = imagePath.split("/");
-                if (parts.length == 2) {
-                    String folder = parts[0];
-                    String filename = parts[1];
-
-                    String number = filename.replaceAll("[^0-9]", "");
-                    if (!number.isEmpty()) {
-
-                        for (String ext : extensions) {
-                            String altPath = "resources/images/" + folder + "/" + number + ext;
-                            icon = new ImageIcon(altPath);
-                            if (icon.getIconWidth() > 0 && icon.getIconHeight() > 0) {
-                                return icon;
-                            }
-                        }
-                    }
-
-                    int hotelId = hotel.getId();
-                    for (String ext : extensions) {
-                        String altPath = "resources/images/" + folder + "/" + hotelId + ext;
-                        icon = new ImageIcon(altPath);
-                        if (icon.getIconWidth() > 0 && icon.getIconHeight() > 0) {
-                            return icon;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-
-            }
-        }
-        
-        return null;
-    }
 }
@@ -4,6 +4,10 @@ import com.dlightplanner.models.*;
 import com.dlightplanner.models.MultiCityTripRequest.CityLeg;
 import com.dlightplanner.models.MultiCityTripRequest.FlightLeg;
 import com.dlightplanner.services.AirportService;
+import com.dlightplanner.services.DataLoader;
+import com.dlightplanner.services.FlightService;
+import com.dlightplanner.services.HotelRateCalendar;
+import com.dlightplanner.services.HotelService;
 
 import javax.swing.*;
 import java.awt.*;
@@ -17,8 +21,11 @@ public class MultiCityFlowPage extends JFrame {
     private static final DateTimeFormatter DATE_FORMAT_SIMPLE = DateTimeFormatter.ofPattern("dd MMM yyyy");
     
     private final MultiCityTripRequest request;
-    private final AirportService airportService = new AirportService();
+    private final AirportService airportService = DataLoader.getInstance().getAirportService();
+    private final HotelService hotelService = DataLoader.getInstance().getHotelService();
+    private final FlightService flightService = DataLoader.getInstance().getFlightService();
     
+    private final Map<FlightLeg, List<Flight>> legFlights = new HashMap<>(); // filled on the EDT
     private Map<FlightLeg, Flight> selectedFlights = new HashMap<>();
     private Map<String, Hotel> selectedHotels = new HashMap<>();
     private Map<String, List<TouristSpot>> selectedTouristSpots = new HashMap<>();
@@ -44,6 +51,14 @@ public class MultiCityFlowPage extends JFrame {
     public MultiCityTripRequest getRequest() {
         return request;
     }
+
+    /**
+     * Flights found in the background for a leg of this trip on its planned date, or null if
+     * that search has not finished (or it is not a leg of the trip)
+     */
+    public List<Flight> getFlightsForLeg(FlightLeg leg) {
+        return legFlights.get(leg);
+    }
     
     public MultiCityFlowPage(MultiCityTripRequest request, JFrame previousFrame) {
         this.request = request;
@@ -61,33 +76,39 @@ public class MultiCityFlowPage extends JFrame {
             previousFrame.setVisible(false);
         }
         
-        airportService.loadAirportsFromJson("resources/airports.json");
-        
+        searchLaterLegs();
         showNextFlightSelection();
     }
     
+    /**
+     * Search the legs after the first in parallel while the user picks the first one; the
+     * first leg's FlightPage runs its own search. Results are handed to the EDT as they arrive.
+     */
+    private void searchLaterLegs() {
+        List<FlightLeg> legs = request.getFlightLegs();
+        if (legs.size() < 2) {
+            return;
+        }
+        flightService.searchLegs(legs.subList(1, legs.size())).forEach((leg, search) ->
+                search.whenComplete((flights, error) -> {
+                    if (error != null) {
+                        System.err.println("Flight search failed for " + leg.getFromCode() + " → "
+                                + leg.getToCode() + ": " + error.getMessage());
+                    } else {
+                        SwingUtilities.invokeLater(() -> legFlights.put(leg, flights));
+                    }
+                }));
+    }
+    
     private String getCityName(String code) {
-        return airportService.getAirports().stream()
-                .filter(airport -> airport.getIata().equalsIgnoreCase(code))
-                .map(Airport::getCity)
-                .findFirst()
-                .orElse(code);
+        return airportService.getCityName(code);
     }
     
     /**
-     * Find a flight for the given leg by matching leg attributes (fromCode, toCode, date)
-     * instead of object reference, since FlightLeg doesn't override equals/hashCode
+     * Find the flight selected for the given leg (FlightLeg compares by fromCode, toCode and date)
      */
     private Flight findFlightForLeg(FlightLeg leg) {
-        for (Map.Entry<FlightLeg, Flight> entry : selectedFlights.entrySet()) {
-            FlightLeg key = entry.getKey();
-            if (key.getFromCode().equals(leg.getFromCode()) &&
-                key.getToCode().equals(leg.getToCode()) &&
-                key.getDate().equals(leg.getDate())) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        return selectedFlights.get(leg);
     }
     
     private void showNextFlightSelection() {
@@ -100,6 +121,7 @@ public class MultiCityFlowPage extends JFrame {
         }
         
         FlightLeg leg = legs.get(currentFlightLegIndex);
+        flightService.prefetchLegs(legs.subList(currentFlightLegIndex + 1, legs.size())); // fare calendars
         
         FlightSearchRequest flightRequest = new FlightSearchRequest(
             leg.getFromCode(),
@@ -251,11 +273,10 @@ public class MultiCityFlowPage extends JFrame {
             
             Hotel hotel = selectedHotels.get(destCode);
             if (hotel != null) {
-                long nights = java.time.temporal.ChronoUnit.DAYS.between(city.getArrivalDate(), city.getDepartureDate());
-                if (nights < 1) nights = 1;
-                
-                double pricePerNight = hotel.getPricePerNight();
-                double hotelTotal = pricePerNight * nights;
+                HotelRateCalendar.StayQuote quote = hotelService.quoteStay(hotel, city.getArrivalDate(), city.getDepartureDate());
+                int nights = quote.getNights();
+                double pricePerNight = quote.getAverageNightlyRate();
+                double hotelTotal = quote.getTotalPrice();
                 totalHotelCost += hotelTotal;
                 
                 breakdown.append(String.format("Hotel %d: %s\n", i + 1, getCityName(destCode)));
@@ -263,7 +284,7 @@ public class MultiCityFlowPage extends JFrame {
                 breakdown.append(String.format("  Check-in: %s\n", city.getArrivalDate().format(DATE_FORMAT_SIMPLE)));
                 breakdown.append(String.format("  Check-out: %s\n", city.getDepartureDate().format(DATE_FORMAT_SIMPLE)));
                 breakdown.append(String.format("  Nights: %d\n", nights));
-                breakdown.append(String.format("  Price per night: ₹%,.0f\n", pricePerNight));
+                breakdown.append(String.format("  Avg. price per night: ₹%,.0f\n", pricePerNight));
                 breakdown.append(String.format("  Hotel Total: ₹%,.0f\n\n", hotelTotal));
             }
         }
@@ -4,27 +4,31 @@ import com.dlightplanner.models.*;
 import com.dlightplanner.models.MultiCityTripRequest.CityLeg;
 import com.dlightplanner.models.MultiCityTripRequest.FlightLeg;
 import com.dlightplanner.services.AirportService;
+import com.dlightplanner.services.DataLoader;
 import com.dlightplanner.services.ItineraryGenerator;
 import com.dlightplanner.services.ItineraryGenerator.TimeSlot;
 import com.dlightplanner.services.ItineraryGenerator.TravelInfo;
-import com.dlightplanner.services.TouristSpotService;
-import com.dlightplanner.services.WeatherService;
+import com.dlightplanner.services.ItineraryPlan;
+import com.dlightplanner.services.ItineraryPlanCache;
 import com.dlightplanner.services.WeatherService.WeatherForecast;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class MultiCityItineraryPage extends JFrame {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
-    private static final int MAX_HOURS_PER_DAY = 10; // Maximum hours per day (9 AM to 7 PM)
     
     private final MultiCityTripRequest request;
     private final Map<FlightLeg, Flight> selectedFlights;
@@ -33,10 +37,10 @@ public class MultiCityItineraryPage extends JFrame {
     
     private final AirportService airportService;
     private final ItineraryGenerator itineraryGenerator;
-    private final WeatherService weatherService;
-    private final TouristSpotService touristSpotService;
+    private final ItineraryPlanCache planCache;
     private JPanel itineraryPanel;
     private JFrame previousFrame;
+    private ItineraryWorker generationWorker;
     
     public MultiCityItineraryPage(MultiCityTripRequest request,
                                  Map<FlightLeg, Flight> selectedFlights,
@@ -53,14 +57,11 @@ public class MultiCityItineraryPage extends JFrame {
             previousFrame.setVisible(false);
         }
         
-        airportService = new AirportService();
-        airportService.loadAirportsFromJson("resources/airports.json");
+        DataLoader catalog = DataLoader.getInstance();
+        airportService = catalog.getAirportService();
         
         itineraryGenerator = new ItineraryGenerator();
-        weatherService = new WeatherService();
-        
-        touristSpotService = new TouristSpotService();
-        touristSpotService.loadTouristSpotsFromJson("resources/tourist_spots.json");
+        planCache = catalog.getItineraryPlanCache();
         
         setTitle("Voya | Multi-City Smart Itinerary");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -73,17 +74,20 @@ public class MultiCityItineraryPage extends JFrame {
         add(buildHeaderPanel(), BorderLayout.NORTH);
         add(buildContentPanel(), BorderLayout.CENTER);
         add(buildFooterPanel(), BorderLayout.SOUTH);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelGeneration();
+            }
+        });
         
         generateItinerary();
         setVisible(true);
     }
     
     private String getCityName(String code) {
-        return airportService.getAirports().stream()
-                .filter(airport -> airport.getIata().equalsIgnoreCase(code))
-                .map(Airport::getCity)
-                .findFirst()
-                .orElse(code);
+        return airportService.getCityName(code);
     }
     
     private JPanel buildHeaderPanel() {
@@ -164,164 +168,194 @@ public class MultiCityItineraryPage extends JFrame {
     }
     
     private void generateItinerary() {
+        cancelGeneration();
         itineraryPanel.removeAll();
-        
-        List<CityLeg> cities = request.getCityLegs();
-        
-        for (int cityIndex = 0; cityIndex < cities.size(); cityIndex++) {
-            CityLeg city = cities.get(cityIndex);
-            String destCode = city.getDestinationCode();
-            String originCode = request.getOriginCode();
-            boolean isLastCity = (cityIndex == cities.size() - 1);
 
-            if (isLastCity && destCode.equalsIgnoreCase(originCode)) {
-                continue;
-            }
-            
-            Hotel hotel = selectedHotels.get(destCode);
-            List<TouristSpot> spots = selectedTouristSpots.getOrDefault(destCode, new ArrayList<>());
-
-            JPanel cityHeader = createCityHeader(cityIndex + 1, city, hotel);
-            itineraryPanel.add(cityHeader);
-            itineraryPanel.add(Box.createVerticalStrut(15));
+        JLabel planningLabel = new JLabel("Planning your cities...");
+        planningLabel.setFont(new Font("SansSerif", Font.ITALIC, 14));
+        planningLabel.setForeground(new Color(100, 100, 100));
+        planningLabel.setBorder(new EmptyBorder(30, 0, 30, 0));
+        itineraryPanel.add(planningLabel);
 
-            int numberOfDays = (int) ChronoUnit.DAYS.between(city.getArrivalDate(), city.getDepartureDate());
-            if (numberOfDays < 1) numberOfDays = 1;
-            
-            if (spots.isEmpty()) {
-                JLabel noSpotsLabel = new JLabel("<html><center><h3>No Tourist Spots Selected for " + 
-                    getCityName(destCode) + "</h3>" +
-                    "<p>You can still enjoy your stay at " + (hotel != null ? hotel.getName() : "your hotel") + "</p>" +
-                    "<p>Explore the city at your own pace!</p></center></html>");
-                noSpotsLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                noSpotsLabel.setBorder(new EmptyBorder(50, 0, 50, 0));
-                itineraryPanel.add(noSpotsLabel);
-            } else {
+        generationWorker = new ItineraryWorker(planningLabel);
+        generationWorker.execute();
+        
+        itineraryPanel.revalidate();
+        itineraryPanel.repaint();
+    }
 
-                Map<LocalDate, List<TouristSpot>> dayWiseSpots = itineraryGenerator.groupSpotsByProximity(
-                        spots, hotel, city.getArrivalDate(), numberOfDays);
-
-                Set<Integer> selectedSpotIds = spots.stream()
-                        .map(TouristSpot::getId)
-                        .collect(Collectors.toSet());
-
-                for (TouristSpot spot : spots) {
-
-                    boolean found = false;
-                    for (List<TouristSpot> daySpots : dayWiseSpots.values()) {
-                        for (TouristSpot daySpot : daySpots) {
-                            if (daySpot.getId() == spot.getId()) {
-                                found = true;
-                                break;
-                            }
-                        }
-                        if (found) break;
-                    }
-                    
-                    if (!found) {
-
-                        LocalDate bestDay = city.getArrivalDate();
-                        int minCount = Integer.MAX_VALUE;
-                        for (int d = 0; d < numberOfDays; d++) {
-                            LocalDate dDate = city.getArrivalDate().plusDays(d);
-                            List<TouristSpot> existingDaySpots = dayWiseSpots.getOrDefault(dDate, new ArrayList<>());
-                            int count = existingDaySpots.size();
-                            if (count < minCount) {
-                                minCount = count;
-                                bestDay = dDate;
-                            }
-                        }
-                        if (!dayWiseSpots.containsKey(bestDay)) {
-                            dayWiseSpots.put(bestDay, new ArrayList<>());
-                        }
-                        dayWiseSpots.get(bestDay).add(spot);
-                    }
-                }
+    private void cancelGeneration() {
+        if (generationWorker != null) {
+            generationWorker.cancel(true);
+            generationWorker = null;
+        }
+    }
 
+    /**
+     * Plan every day of one city. Only reads shared state, so cities can be planned in parallel.
+     * @return null for a final leg that just returns to the origin
+     */
+    private CityPlan planCity(int cityIndex, CityLeg city, boolean isLastCity) {
+        String destCode = city.getDestinationCode();
+        if (isLastCity && destCode.equalsIgnoreCase(request.getOriginCode())) {
+            return null;
+        }
 
-                int totalDistributedSpots = 0;
-                for (List<TouristSpot> daySpots : dayWiseSpots.values()) {
-                    totalDistributedSpots += daySpots.size();
-                }
+        Hotel hotel = selectedHotels.get(destCode);
+        List<TouristSpot> spots = selectedTouristSpots.getOrDefault(destCode, new ArrayList<>());
 
-                boolean needsRedistribution = false;
-                if (totalDistributedSpots > numberOfDays) {
-                    for (int d = 0; d < numberOfDays; d++) {
-                        LocalDate dDate = city.getArrivalDate().plusDays(d);
-                        List<TouristSpot> daySpots = dayWiseSpots.getOrDefault(dDate, new ArrayList<>());
-                        if (daySpots.size() > (totalDistributedSpots * 0.8)) {
-                            needsRedistribution = true;
-                            break;
-                        }
-                    }
-                }
+        int numberOfDays = (int) ChronoUnit.DAYS.between(city.getArrivalDate(), city.getDepartureDate());
+        if (numberOfDays < 1) numberOfDays = 1;
 
-                if (needsRedistribution && totalDistributedSpots > 0) {
-
-                    List<TouristSpot> allSpotsList = new ArrayList<>();
-                    for (int d = 0; d < numberOfDays; d++) {
-                        LocalDate dDate = city.getArrivalDate().plusDays(d);
-                        List<TouristSpot> daySpots = dayWiseSpots.getOrDefault(dDate, new ArrayList<>());
-                        allSpotsList.addAll(daySpots);
-                    }
-
-                    for (int d = 0; d < numberOfDays; d++) {
-                        LocalDate dDate = city.getArrivalDate().plusDays(d);
-                        dayWiseSpots.put(dDate, new ArrayList<>());
-                    }
-
-                    int spotIndex = 0;
-                    for (TouristSpot spot : allSpotsList) {
-                        int dayIndex = spotIndex % numberOfDays;
-                        LocalDate dayDate = city.getArrivalDate().plusDays(dayIndex);
-                        dayWiseSpots.get(dayDate).add(spot);
-                        spotIndex++;
-                    }
-                }
+        CityPlan plan = new CityPlan(cityIndex, city, hotel, numberOfDays);
+        if (spots.isEmpty()) {
+            return plan;
+        }
 
-                for (int d = 0; d < numberOfDays; d++) {
-                    LocalDate dDate = city.getArrivalDate().plusDays(d);
-                    if (!dayWiseSpots.containsKey(dDate)) {
-                        dayWiseSpots.put(dDate, new ArrayList<>());
-                    }
-                }
+        ItineraryPlan itinerary = planCache.get(ItineraryPlan.Key.of(
+                destCode, hotel, spots, city.getArrivalDate(), city.getDepartureDate()));
+        if (itinerary == null) {
+            itinerary = itineraryGenerator.generatePlan(destCode, hotel, spots,
+                    city.getArrivalDate(), city.getDepartureDate(), null);
+            if (itinerary == null) {
+                return plan; // interrupted
+            }
+            planCache.put(itinerary);
+        }
+        plan.days.addAll(itinerary.getDays());
+        return plan;
+    }
 
-                for (int day = 0; day < numberOfDays; day++) {
-                    LocalDate currentDate = city.getArrivalDate().plusDays(day);
+    private void addCitySection(CityPlan plan, boolean addSeparator) {
+        CityLeg city = plan.city;
+        String destCode = city.getDestinationCode();
+        Hotel hotel = plan.hotel;
+
+        JPanel cityHeader = createCityHeader(plan.cityIndex + 1, city, hotel);
+        itineraryPanel.add(cityHeader);
+        itineraryPanel.add(Box.createVerticalStrut(15));
+
+        if (plan.days.isEmpty()) {
+            JLabel noSpotsLabel = new JLabel("<html><center><h3>No Tourist Spots Selected for " + 
+                getCityName(destCode) + "</h3>" +
+                "<p>You can still enjoy your stay at " + (hotel != null ? hotel.getName() : "your hotel") + "</p>" +
+                "<p>Explore the city at your own pace!</p></center></html>");
+            noSpotsLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            noSpotsLabel.setBorder(new EmptyBorder(50, 0, 50, 0));
+            itineraryPanel.add(noSpotsLabel);
+        }
+        for (ItineraryPlan.Day day : plan.days) {
+            itineraryPanel.add(createDayCard(plan.cityIndex + 1, day, hotel, destCode, plan.numberOfDays));
+            itineraryPanel.add(Box.createVerticalStrut(20));
+        }
 
+        if (addSeparator) {
+            JSeparator separator = new JSeparator();
+            separator.setPreferredSize(new Dimension(Integer.MAX_VALUE, 2));
+            itineraryPanel.add(separator);
+            itineraryPanel.add(Box.createVerticalStrut(30));
+        }
+    }
 
-                    List<TouristSpot> daySpots = new ArrayList<>(dayWiseSpots.get(currentDate));
+    /**
+     * One city's computed days, handed from the planning threads to the EDT
+     */
+    private static class CityPlan {
+        final int cityIndex;
+        final CityLeg city;
+        final Hotel hotel;
+        final int numberOfDays;
+        final List<ItineraryPlan.Day> days = new ArrayList<>();
+
+        CityPlan(int cityIndex, CityLeg city, Hotel hotel, int numberOfDays) {
+            this.cityIndex = cityIndex;
+            this.city = city;
+            this.hotel = hotel;
+            this.numberOfDays = numberOfDays;
+        }
+    }
 
-                    if (daySpots.size() < 4 && daySpots.size() > 0) {
-                        int dayDuration = calculateDayDuration(daySpots);
-                        int availableHours = MAX_HOURS_PER_DAY - dayDuration;
-                        if (availableHours > 0) {
-                            List<TouristSpot> recommendedSpots = getRecommendedSpotsForExtraTime(
-                                    destCode, selectedSpotIds, daySpots, availableHours);
-                            int spotsNeeded = Math.min(4 - daySpots.size(), recommendedSpots.size());
-                            if (spotsNeeded > 0 && !recommendedSpots.isEmpty()) {
-                                daySpots.addAll(recommendedSpots.subList(0, spotsNeeded));
-                            }
-                        }
-                    }
+    /**
+     * Plans all cities in parallel on the common fork-join pool, then publishes them in
+     * leg order, so each city's section appears as soon as it and every city before it
+     * are ready. Logs the time to the first city and the total time.
+     */
+    private class ItineraryWorker extends SwingWorker<Integer, CityPlan> {
+        private final JLabel planningLabel;
+        private final long startNanos = System.nanoTime();
+        private long firstCityMillis = -1;
+        private final List<ForkJoinTask<CityPlan>> tasks = new ArrayList<>();
+
+        ItineraryWorker(JLabel planningLabel) {
+            this.planningLabel = planningLabel;
+        }
 
-                    List<TouristSpot> optimizedRoute = itineraryGenerator.optimizeRoute(daySpots, hotel);
+        @Override
+        protected Integer doInBackground() throws Exception {
+            List<CityLeg> cities = request.getCityLegs();
+            for (int cityIndex = 0; cityIndex < cities.size(); cityIndex++) {
+                int index = cityIndex;
+                boolean isLastCity = cityIndex == cities.size() - 1;
+                tasks.add(ForkJoinPool.commonPool().submit(() -> planCity(index, cities.get(index), isLastCity)));
+            }
 
-                    itineraryPanel.add(createDayCard(cityIndex + 1, day + 1, currentDate, optimizedRoute, hotel, destCode, numberOfDays));
-                    itineraryPanel.add(Box.createVerticalStrut(20));
+            int planned = 0;
+            for (ForkJoinTask<CityPlan> task : tasks) {
+                if (isCancelled()) {
+                    break;
+                }
+                CityPlan plan = task.get();
+                if (plan != null) {
+                    publish(plan);
+                    planned++;
                 }
             }
+            return planned;
+        }
 
-            if (cityIndex < cities.size() - 1) {
-                JSeparator separator = new JSeparator();
-                separator.setPreferredSize(new Dimension(Integer.MAX_VALUE, 2));
-                itineraryPanel.add(separator);
-                itineraryPanel.add(Box.createVerticalStrut(30));
+        @Override
+        protected void process(List<CityPlan> plans) {
+            if (isCancelled()) {
+                return;
+            }
+            if (firstCityMillis < 0) {
+                firstCityMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                itineraryPanel.remove(planningLabel);
+            }
+            int cityCount = request.getCityLegs().size();
+            for (CityPlan plan : plans) {
+                addCitySection(plan, plan.cityIndex < cityCount - 1);
+            }
+            itineraryPanel.revalidate();
+            itineraryPanel.repaint();
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                for (ForkJoinTask<CityPlan> task : tasks) {
+                    task.cancel(false);
+                }
+                return;
+            }
+            try {
+                int cities = get();
+                long totalMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                System.out.println("Multi-city itinerary: first city in " + firstCityMillis
+                        + " ms, " + cities + " cities in " + totalMillis + " ms"
+                        + "; " + itineraryGenerator.getTravelMatrix().getStats()
+                        + "; " + planCache.getStats());
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Error generating multi-city itinerary: " + e.getMessage());
+                e.printStackTrace();
+                planningLabel.setText("Could not generate the itinerary. Please go back and try again.");
+                if (planningLabel.getParent() == null) {
+                    itineraryPanel.add(planningLabel);
+                }
+                itineraryPanel.revalidate();
+                itineraryPanel.repaint();
             }
         }
-        
-        itineraryPanel.revalidate();
-        itineraryPanel.repaint();
     }
     
     private JPanel createCityHeader(int cityNumber, CityLeg city, Hotel hotel) {
@@ -365,7 +399,11 @@ public class MultiCityItineraryPage extends JFrame {
         return header;
     }
     
-    private JPanel createDayCard(int cityNumber, int dayNumber, LocalDate date, List<TouristSpot> spots, Hotel hotel, String destinationCode, int numberOfDays) {
+    private JPanel createDayCard(int cityNumber, ItineraryPlan.Day day, Hotel hotel, String destinationCode, int numberOfDays) {
+        int dayNumber = day.getDayNumber();
+        LocalDate date = day.getDate();
+        List<TouristSpot> spots = day.getSpots();
+
         JPanel dayCard = new JPanel();
         dayCard.setLayout(new BoxLayout(dayCard, BoxLayout.Y_AXIS));
         dayCard.setBackground(Color.WHITE);
@@ -391,7 +429,7 @@ public class MultiCityItineraryPage extends JFrame {
             dayCard.add(headerPanel);
             dayCard.add(Box.createVerticalStrut(15));
 
-            WeatherForecast dayWeather = weatherService.getWeatherForecast(destinationCode, date);
+            WeatherForecast dayWeather = day.getWeather();
 
             JPanel weatherPanel = createWeatherPanel(dayWeather);
             dayCard.add(weatherPanel);
@@ -404,23 +442,19 @@ public class MultiCityItineraryPage extends JFrame {
             dayCard.add(freeDayLabel);
 
             Map<TouristSpot, TimeSlot> emptySchedule = new HashMap<>();
-            JPanel recommendationsPanel = createTimeBasedRecommendations(date, emptySchedule, spots, dayNumber, destinationCode, numberOfDays);
+            JPanel recommendationsPanel = createTimeBasedRecommendations(date, emptySchedule, spots, dayNumber, destinationCode, numberOfDays, dayWeather);
             dayCard.add(Box.createVerticalStrut(10));
             dayCard.add(recommendationsPanel);
             
             return dayCard;
         }
 
-        Map<TouristSpot, TimeSlot> schedule = itineraryGenerator.scheduleTimeSlots(
-                spots, hotel, numberOfDays, spots.size());
+        Map<TouristSpot, TimeSlot> schedule = day.getSchedule();
 
         double totalDuration = 0;
-        for (TouristSpot spot : spots) {
-            TimeSlot slot = schedule.get(spot);
-            if (slot != null) {
-                long minutes = ChronoUnit.MINUTES.between(slot.getStartTime(), slot.getEndTime());
-                totalDuration += minutes / 60.0;
-            }
+        for (TimeSlot slot : schedule.values()) {
+            long minutes = ChronoUnit.MINUTES.between(slot.getStartTime(), slot.getEndTime());
+            totalDuration += minutes / 60.0;
         }
         JLabel durationLabel = new JLabel(String.format("Total: %.1f hours (%d spots)", totalDuration, spots.size()));
         durationLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
@@ -430,56 +464,20 @@ public class MultiCityItineraryPage extends JFrame {
         dayCard.add(headerPanel);
         dayCard.add(Box.createVerticalStrut(15));
 
-        WeatherForecast dayWeather = weatherService.getWeatherForecast(destinationCode, date);
+        WeatherForecast dayWeather = day.getWeather();
 
         JPanel weatherPanel = createWeatherPanel(dayWeather);
         dayCard.add(weatherPanel);
         dayCard.add(Box.createVerticalStrut(10));
 
-        List<TouristSpot> sortedSpots = new ArrayList<>(spots);
-        sortedSpots.sort(Comparator.comparing(spot -> {
-            TimeSlot slot = schedule.get(spot);
-            return slot != null ? slot.getStartTime() : LocalTime.of(23, 59);
-        }));
-
-        for (int i = 0; i < sortedSpots.size(); i++) {
-            TouristSpot spot = sortedSpots.get(i);
-            TimeSlot timeSlot = schedule.get(spot);
-
-            if (timeSlot == null) {
-
-                LocalTime startTime = LocalTime.of(9, 0);
-                if (i > 0) {
-                    TouristSpot prevSpot = sortedSpots.get(i - 1);
-                    TimeSlot prevSlot = schedule.get(prevSpot);
-                    if (prevSlot != null) {
-                        startTime = prevSlot.getEndTime().plusMinutes(30); // 30 min travel buffer
-                        startTime = roundTimeTo15Minutes(startTime); // Round to 15-minute interval
-                    }
-                }
-
-                if (startTime.isAfter(LocalTime.of(20, 0))) {
-                    startTime = LocalTime.of(9, 0).plusHours(i);
-                    startTime = roundTimeTo15Minutes(startTime); // Round to 15-minute interval
-                }
-                LocalTime endTime = startTime.plusHours(1).plusMinutes(30); // 1.5 hours default
-                endTime = roundTimeTo15Minutes(endTime); // Round to 15-minute interval
-                timeSlot = new TimeSlot(startTime, endTime);
-                schedule.put(spot, timeSlot); // Add to schedule
-            }
-
-            TravelInfo travelInfo = null;
-            if (i > 0) {
-                TouristSpot previousSpot = sortedSpots.get(i - 1);
-                travelInfo = itineraryGenerator.getTravelInfo(previousSpot, spot);
-            }
-            
-            JPanel spotTimeSlot = createSpotTimeSlot(spot, timeSlot, date, travelInfo);
+        for (ItineraryPlan.Visit visit : day.getVisits()) {
+            JPanel spotTimeSlot = createSpotTimeSlot(visit.getSpot(), visit.getTimeSlot(), date,
+                    visit.getTravelFromPrevious());
             dayCard.add(spotTimeSlot);
             dayCard.add(Box.createVerticalStrut(10));
         }
 
-        JPanel recommendationsPanel = createTimeBasedRecommendations(date, schedule, spots, dayNumber, destinationCode, numberOfDays);
+        JPanel recommendationsPanel = createTimeBasedRecommendations(date, schedule, spots, dayNumber, destinationCode, numberOfDays, dayWeather);
         dayCard.add(recommendationsPanel);
         
         return dayCard;
@@ -623,7 +621,8 @@ public class MultiCityItineraryPage extends JFrame {
                                                   List<TouristSpot> spots,
                                                   int dayNumber,
                                                   String destinationCode,
-                                                  int numberOfDays) {
+                                                  int numberOfDays,
+                                                  WeatherForecast weather) {
         JPanel recommendationsPanel = new JPanel();
         recommendationsPanel.setLayout(new BoxLayout(recommendationsPanel, BoxLayout.Y_AXIS));
         recommendationsPanel.setBackground(new Color(255, 250, 240));
@@ -632,7 +631,6 @@ public class MultiCityItineraryPage extends JFrame {
                 new EmptyBorder(15, 15, 15, 15)));
         
         String cityName = getCityName(destinationCode);
-        WeatherForecast weather = weatherService.getWeatherForecast(destinationCode, date);
 
         boolean hasMorning = false, hasAfternoon = false, hasEvening = false;
         for (TouristSpot spot : spots) {
@@ -760,68 +758,4 @@ public class MultiCityItineraryPage extends JFrame {
         Collections.shuffle(recommendations);
         return recommendations.subList(0, Math.min(4, recommendations.size()));
     }
-    
-    private int calculateDayDuration(List<TouristSpot> daySpots) {
-        if (daySpots.isEmpty()) {
-            return 0;
-        }
-        
-        double totalDuration = daySpots.get(0).getEstimatedDuration();
-        for (int i = 1; i < daySpots.size(); i++) {
-            TouristSpot prev = daySpots.get(i - 1);
-            TouristSpot curr = daySpots.get(i);
-            int travelTime = itineraryGenerator.calculateTravelTimeMinutes(prev, curr);
-            totalDuration += curr.getEstimatedDuration() + (travelTime / 60.0);
-        }
-        
-        return (int) Math.ceil(totalDuration);
-    }
-    
-    private List<TouristSpot> getRecommendedSpotsForExtraTime(String destinationCode, 
-                                                              Set<Integer> alreadySelectedIds,
-                                                              List<TouristSpot> existingDaySpots,
-                                                              int availableHours) {
-        List<TouristSpot> recommended = new ArrayList<>();
-        
-        List<TouristSpot> allSpots = touristSpotService.getTouristSpotsByDestination(destinationCode);
-        
-        List<TouristSpot> availableSpots = allSpots.stream()
-                .filter(spot -> !alreadySelectedIds.contains(spot.getId()))
-                .filter(spot -> !existingDaySpots.contains(spot))
-                .collect(Collectors.toList());
-        
-        availableSpots.sort(Comparator.comparingDouble(TouristSpot::getDistanceFromCityCenter));
-        
-        int usedHours = 0;
-        for (TouristSpot spot : availableSpots) {
-            if (usedHours >= availableHours - 1) {
-                break;
-            }
-            
-            double spotDuration = spot.getEstimatedDuration();
-            int travelTime = existingDaySpots.isEmpty() ? 0 : 1;
-            
-            if (usedHours + (int) Math.ceil(spotDuration) + travelTime <= availableHours) {
-                recommended.add(spot);
-                usedHours += (int) Math.ceil(spotDuration) + travelTime;
-            }
-        }
-        
-        return recommended;
-    }
-    
-    /**
-     * Round LocalTime to nearest 15-minute interval (00, 15, 30, 45)
-     */
-    private LocalTime roundTimeTo15Minutes(LocalTime time) {
-        int minutes = time.getMinute();
-        int roundedMinutes = ((minutes + 7) / 15) * 15; // Round to nearest 15
-        
-        if (roundedMinutes >= 60) {
-            return time.plusHours(1).withMinute(0).withSecond(0).withNano(0);
-        } else {
-            return time.withMinute(roundedMinutes).withSecond(0).withNano(0);
-        }
-    }
 }
-
@@ -2,6 +2,9 @@ package com.dlightplanner.gui;
 
 import com.dlightplanner.models.City;
 import com.dlightplanner.services.CityService;
+import com.dlightplanner.services.DataLoader;
+import com.dlightplanner.services.ImagePathResolver;
+import com.dlightplanner.utils.ImageUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -9,6 +12,7 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -29,7 +33,8 @@ public class QuizPage extends JFrame {
     private final JLabel helperLabel = new JLabel();
     private final CardLayout cardLayout = new CardLayout();
     private final JPanel contentPanel = new JPanel(cardLayout);
-    private final CityService cityService = new CityService();
+    private final CityService cityService = DataLoader.getInstance().getCityService();
+    private final ImagePathResolver imagePaths = DataLoader.getInstance().getImagePathResolver();
     private final AnimatedBackgroundPanel backgroundPanel = new AnimatedBackgroundPanel();
 
     private int currentIndex = 0;
@@ -63,7 +68,6 @@ public class QuizPage extends JFrame {
             }
         });
 
-        cityService.loadCitiesFromJson("resources/cities.json");
         questions = buildQuestions();
 
         backgroundPanel.setLayout(new BorderLayout());
@@ -439,34 +443,13 @@ public class QuizPage extends JFrame {
         imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         imageLabel.setVerticalAlignment(SwingConstants.CENTER);
 
-        try {
-            ImageIcon icon = new ImageIcon("resources/images/" + city.getImagePath());
-            if (icon.getIconWidth() > 0) {
-
-                int maxWidth = 280;
-                int maxHeight = 200;
-                int originalWidth = icon.getIconWidth();
-                int originalHeight = icon.getIconHeight();
-                
-                double widthRatio = (double) maxWidth / originalWidth;
-                double heightRatio = (double) maxHeight / originalHeight;
-                double ratio = Math.min(widthRatio, heightRatio);
-                
-                int scaledWidth = (int) (originalWidth * ratio);
-                int scaledHeight = (int) (originalHeight * ratio);
-                
-                Image scaledImage = icon.getImage().getScaledInstance(scaledWidth, scaledHeight, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-            } else {
-                imageLabel.setText("Image not available");
-                imageLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
-                imageLabel.setForeground(new Color(150, 150, 150));
-            }
-        } catch (Exception e) {
-            imageLabel.setText("Image not available");
-            imageLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
-            imageLabel.setForeground(new Color(150, 150, 150));
-        }
+        // Keep the aspect ratio within 280 x 200
+        ImageUtils.loadInto(imageLabel, Collections.singletonList(imagePaths.resolve(city)), 280, 200,
+                ImageUtils.Fit.CONTAIN, () -> {
+                    imageLabel.setText("Image not available");
+                    imageLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
+                    imageLabel.setForeground(new Color(150, 150, 150));
+                });
 
         imageLabel.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createLineBorder(new Color(220, 220, 220), 1),
@@ -817,6 +800,7 @@ public class QuizPage extends JFrame {
     private record QuizOption(String label, List<String> tags) {}
 
     public static void main(String[] args) {
+        DataLoader.preload();
         SwingUtilities.invokeLater(QuizPage::new);
     }
 }
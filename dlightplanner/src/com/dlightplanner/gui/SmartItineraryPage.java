@@ -3,9 +3,12 @@ package com.dlightplanner.gui;
 import com.dlightplanner.models.Hotel;
 import com.dlightplanner.models.TouristSpot;
 import com.dlightplanner.services.AirportService;
+import com.dlightplanner.services.DataLoader;
 import com.dlightplanner.services.ItineraryGenerator;
 import com.dlightplanner.services.ItineraryGenerator.TimeSlot;
 import com.dlightplanner.services.ItineraryGenerator.TravelInfo;
+import com.dlightplanner.services.ItineraryPlan;
+import com.dlightplanner.services.ItineraryPlanCache;
 import com.dlightplanner.services.TouristSpotService;
 import com.dlightplanner.services.WeatherService;
 import com.dlightplanner.services.WeatherService.WeatherForecast;
@@ -13,16 +16,18 @@ import com.dlightplanner.services.WeatherService.WeatherForecast;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class SmartItineraryPage extends JFrame {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
-    private static final int MAX_HOURS_PER_DAY = 10; // Maximum hours per day (9 AM to 7 PM)
     
     private final String destinationCode;
     private final LocalDate checkInDate;
@@ -35,9 +40,11 @@ public class SmartItineraryPage extends JFrame {
     private final ItineraryGenerator itineraryGenerator;
     private final WeatherService weatherService;
     private final TouristSpotService touristSpotService;
+    private final ItineraryPlanCache planCache;
     private JPanel itineraryPanel;
     private JLabel smartMessageLabel;
     private JFrame previousFrame;
+    private ItineraryWorker generationWorker;
     
     public SmartItineraryPage(String destinationCode, LocalDate checkInDate, LocalDate checkOutDate, 
                              Hotel selectedHotel, List<TouristSpot> selectedSpots) {
@@ -57,14 +64,14 @@ public class SmartItineraryPage extends JFrame {
             previousFrame.setVisible(false);
         }
         
-        airportService = new AirportService();
-        airportService.loadAirportsFromJson("resources/airports.json");
+        DataLoader catalog = DataLoader.getInstance();
+        airportService = catalog.getAirportService();
         
         itineraryGenerator = new ItineraryGenerator();
         weatherService = new WeatherService();
         
-        touristSpotService = new TouristSpotService();
-        touristSpotService.loadTouristSpotsFromJson("resources/tourist_spots.json");
+        touristSpotService = catalog.getTouristSpotService();
+        planCache = catalog.getItineraryPlanCache();
 
         this.numberOfDays = (int) ChronoUnit.DAYS.between(checkInDate, checkOutDate);
         if (this.numberOfDays < 1) {
@@ -82,17 +89,20 @@ public class SmartItineraryPage extends JFrame {
         add(buildHeaderPanel(), BorderLayout.NORTH);
         add(buildContentPanel(), BorderLayout.CENTER);
         add(buildFooterPanel(), BorderLayout.SOUTH);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelGeneration();
+            }
+        });
         
         generateItinerary();
         setVisible(true);
     }
     
     private String getCityNameFromCode(String code) {
-        return airportService.getAirports().stream()
-                .filter(airport -> airport.getIata().equalsIgnoreCase(code))
-                .map(airport -> airport.getCity())
-                .findFirst()
-                .orElse(code);
+        return airportService.getCityName(code);
     }
     
     private JPanel buildHeaderPanel() {
@@ -230,6 +240,7 @@ public class SmartItineraryPage extends JFrame {
     }
     
     private void generateItinerary() {
+        cancelGeneration();
         itineraryPanel.removeAll();
         
         if (selectedSpots.isEmpty()) {
@@ -240,108 +251,119 @@ public class SmartItineraryPage extends JFrame {
             noSpotsLabel.setBorder(new EmptyBorder(50, 0, 50, 0));
             itineraryPanel.add(noSpotsLabel);
         } else {
+            long startNanos = System.nanoTime();
+            ItineraryPlan cached = planCache.get(ItineraryPlan.Key.of(
+                    destinationCode, selectedHotel, selectedSpots, checkInDate, checkOutDate));
+            if (cached != null) {
+                for (ItineraryPlan.Day day : cached.getDays()) {
+                    addDayCard(day);
+                }
+                itineraryPanel.revalidate();
+                itineraryPanel.repaint();
+                System.out.println("Itinerary for " + destinationCode + ": " + cached.getDays().size()
+                        + " cached days rendered in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms"
+                        + "; " + itineraryGenerator.getTravelMatrix().getStats()
+                        + "; " + planCache.getStats());
+                return;
+            }
 
+            JLabel planningLabel = new JLabel("Planning your days...");
+            planningLabel.setFont(new Font("SansSerif", Font.ITALIC, 14));
+            planningLabel.setForeground(new Color(100, 100, 100));
+            planningLabel.setBorder(new EmptyBorder(30, 0, 30, 0));
+            itineraryPanel.add(planningLabel);
 
-            Map<LocalDate, List<TouristSpot>> dayWiseSpots = itineraryGenerator.groupSpotsByProximity(
-                    selectedSpots, selectedHotel, checkInDate, numberOfDays);
+            generationWorker = new ItineraryWorker(planningLabel);
+            generationWorker.execute();
+        }
+        
+        itineraryPanel.revalidate();
+        itineraryPanel.repaint();
+    }
 
-            Set<Integer> selectedSpotIds = new HashSet<>();
-            Map<Integer, TouristSpot> selectedSpotsMap = new HashMap<>();
-            for (TouristSpot spot : selectedSpots) {
-                selectedSpotIds.add(spot.getId());
-                selectedSpotsMap.put(spot.getId(), spot);
-            }
+    private void cancelGeneration() {
+        if (generationWorker != null) {
+            generationWorker.cancel(true);
+            generationWorker = null;
+        }
+    }
 
-            Set<Integer> distributedSpotIds = new HashSet<>();
-            Map<Integer, TouristSpot> distributedSpotsMap = new HashMap<>();
-            for (List<TouristSpot> daySpots : dayWiseSpots.values()) {
-                for (TouristSpot spot : daySpots) {
-                    distributedSpotIds.add(spot.getId());
-                    distributedSpotsMap.put(spot.getId(), spot);
-                }
-            }
+    /**
+     * Generates the itinerary off the EDT and adds each day's card as soon as that day
+     * is planned. The finished plan is cached, so reopening the page renders it at once.
+     * Logs the time to the first card and the total time.
+     */
+    private class ItineraryWorker extends SwingWorker<ItineraryPlan, ItineraryPlan.Day> {
+        private final JLabel planningLabel;
+        private final long startNanos = System.nanoTime();
+        private long firstDayMillis = -1;
 
-            Set<Integer> missingSpotIds = new HashSet<>(selectedSpotIds);
-            missingSpotIds.removeAll(distributedSpotIds);
-
-            if (!missingSpotIds.isEmpty()) {
-                for (Integer missingId : missingSpotIds) {
-                    TouristSpot missingSpot = selectedSpotsMap.get(missingId);
-                    if (missingSpot != null) {
-
-                        LocalDate bestDay = null;
-                        int minSpots = Integer.MAX_VALUE;
-                        for (int d = 0; d < numberOfDays; d++) {
-                            LocalDate dayDate = checkInDate.plusDays(d);
-                            List<TouristSpot> daySpots = dayWiseSpots.computeIfAbsent(dayDate, k -> new ArrayList<>());
-                            int count = daySpots.size();
-                            if (count < minSpots) {
-                                minSpots = count;
-                                bestDay = dayDate;
-                            }
-                        }
-                        if (bestDay != null) {
-                            dayWiseSpots.get(bestDay).add(missingSpot);
-                            distributedSpotIds.add(missingId);
-                        }
-                    }
-                }
-            }
+        ItineraryWorker(JLabel planningLabel) {
+            this.planningLabel = planningLabel;
+        }
 
-            Set<Integer> finalCheck = new HashSet<>(selectedSpotIds);
-            finalCheck.retainAll(distributedSpotIds);
-
-            if (finalCheck.size() < selectedSpotIds.size()) {
-                for (TouristSpot selectedSpot : selectedSpots) {
-                    boolean found = false;
-                    for (List<TouristSpot> daySpots : dayWiseSpots.values()) {
-                        for (TouristSpot daySpot : daySpots) {
-                            if (daySpot.getId() == selectedSpot.getId()) {
-                                found = true;
-                                break;
-                            }
-                        }
-                        if (found) break;
-                    }
-                    if (!found) {
-
-                        LocalDate dayDate = checkInDate.plusDays(0);
-                        List<TouristSpot> daySpots = dayWiseSpots.computeIfAbsent(dayDate, k -> new ArrayList<>());
-                        daySpots.add(selectedSpot);
-                    }
-                }
+        @Override
+        protected ItineraryPlan doInBackground() {
+            ItineraryPlan plan = itineraryGenerator.generatePlan(destinationCode, selectedHotel, selectedSpots,
+                    checkInDate, checkOutDate, this::publish);
+            if (plan != null) {
+                planCache.put(plan);
             }
+            return plan;
+        }
 
-            for (int day = 0; day < numberOfDays; day++) {
-                LocalDate currentDate = checkInDate.plusDays(day);
-                List<TouristSpot> daySpots = dayWiseSpots.getOrDefault(currentDate, new ArrayList<>());
-
-                int dayDuration = calculateDayDuration(daySpots);
-                int availableHours = MAX_HOURS_PER_DAY - dayDuration;
-
-                if (daySpots.size() < 4) {
-                    List<TouristSpot> recommendedSpots = getRecommendedSpotsForExtraTime(
-                            destinationCode, selectedSpotIds, daySpots, availableHours);
+        @Override
+        protected void process(List<ItineraryPlan.Day> days) {
+            if (isCancelled()) {
+                return;
+            }
+            if (firstDayMillis < 0) {
+                firstDayMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                itineraryPanel.remove(planningLabel);
+            }
+            for (ItineraryPlan.Day day : days) {
+                addDayCard(day);
+            }
+            itineraryPanel.revalidate();
+            itineraryPanel.repaint();
+        }
 
-                    int spotsNeeded = Math.min(4 - daySpots.size(), recommendedSpots.size());
-                    if (spotsNeeded > 0) {
-                        daySpots.addAll(recommendedSpots.subList(0, spotsNeeded));
-                    }
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                ItineraryPlan plan = get();
+                long totalMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                System.out.println("Itinerary for " + destinationCode + ": first day in " + firstDayMillis
+                        + " ms, " + (plan != null ? plan.getDays().size() : 0) + " days in " + totalMillis + " ms"
+                        + "; " + itineraryGenerator.getTravelMatrix().getStats()
+                        + "; " + planCache.getStats());
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Error generating itinerary: " + e.getMessage());
+                e.printStackTrace();
+                planningLabel.setText("Could not generate the itinerary. Please go back and try again.");
+                if (planningLabel.getParent() == null) {
+                    itineraryPanel.add(planningLabel);
                 }
-
-                List<TouristSpot> optimizedRoute = itineraryGenerator.optimizeRoute(daySpots, selectedHotel);
-                
-                itineraryPanel.add(createDayCard(day + 1, currentDate, optimizedRoute));
-                itineraryPanel.add(Box.createVerticalStrut(20));
+                itineraryPanel.revalidate();
+                itineraryPanel.repaint();
             }
         }
-        
-        itineraryPanel.revalidate();
-        itineraryPanel.repaint();
+    }
+
+    private void addDayCard(ItineraryPlan.Day day) {
+        itineraryPanel.add(createDayCard(day));
+        itineraryPanel.add(Box.createVerticalStrut(20));
     }
     
     
-    private JPanel createDayCard(int dayNumber, LocalDate date, List<TouristSpot> spots) {
+    private JPanel createDayCard(ItineraryPlan.Day day) {
+        int dayNumber = day.getDayNumber();
+        LocalDate date = day.getDate();
+        List<TouristSpot> spots = day.getSpots();
+
         JPanel dayCard = new JPanel();
         dayCard.setLayout(new BoxLayout(dayCard, BoxLayout.Y_AXIS));
         dayCard.setBackground(Color.WHITE);
@@ -371,73 +393,30 @@ public class SmartItineraryPage extends JFrame {
             dayCard.add(freeDayLabel);
         } else {
 
-            Map<TouristSpot, TimeSlot> schedule = itineraryGenerator.scheduleTimeSlots(
-                    spots, selectedHotel, numberOfDays, selectedSpots.size());
+            Map<TouristSpot, TimeSlot> schedule = day.getSchedule();
 
             double totalDuration = 0;
-            for (TouristSpot spot : spots) {
-                TimeSlot slot = schedule.get(spot);
-                if (slot != null) {
-                    long minutes = java.time.temporal.ChronoUnit.MINUTES.between(
-                            slot.getStartTime(), slot.getEndTime());
-                    totalDuration += minutes / 60.0;
-                }
+            for (TimeSlot slot : schedule.values()) {
+                long minutes = ChronoUnit.MINUTES.between(slot.getStartTime(), slot.getEndTime());
+                totalDuration += minutes / 60.0;
             }
             JLabel durationLabel = new JLabel(String.format("Total: %.1f hours (%d spots)", totalDuration, spots.size()));
             durationLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
             durationLabel.setForeground(new Color(100, 100, 100));
             headerPanel.add(durationLabel, BorderLayout.EAST);
 
-            List<TouristSpot> sortedSpots = new ArrayList<>(spots);
-            sortedSpots.sort(Comparator.comparing(spot -> {
-                TimeSlot slot = schedule.get(spot);
-                return slot != null ? slot.getStartTime() : LocalTime.of(23, 59);
-            }));
-
-            WeatherForecast dayWeather = weatherService.getWeatherForecast(destinationCode, date);
-
-            JPanel weatherPanel = createWeatherPanel(dayWeather);
+            JPanel weatherPanel = createWeatherPanel(day.getWeather());
             dayCard.add(weatherPanel);
             dayCard.add(Box.createVerticalStrut(10));
 
-            for (int i = 0; i < sortedSpots.size(); i++) {
-                TouristSpot spot = sortedSpots.get(i);
-                TimeSlot timeSlot = schedule.get(spot);
-
-                if (timeSlot == null) {
-
-                    LocalTime startTime = LocalTime.of(9, 0);
-                    if (i > 0) {
-                        TouristSpot prevSpot = sortedSpots.get(i - 1);
-                        TimeSlot prevSlot = schedule.get(prevSpot);
-                        if (prevSlot != null) {
-                            startTime = prevSlot.getEndTime().plusMinutes(30); // 30 min travel buffer
-                            startTime = roundTimeTo15Minutes(startTime); // Round to 15-minute interval
-                        }
-                    }
-
-                    if (startTime.isAfter(LocalTime.of(20, 0))) {
-                        startTime = LocalTime.of(9, 0).plusHours(i);
-                        startTime = roundTimeTo15Minutes(startTime); // Round to 15-minute interval
-                    }
-                    LocalTime endTime = startTime.plusHours(1).plusMinutes(30); // 1.5 hours default
-                    endTime = roundTimeTo15Minutes(endTime); // Round to 15-minute interval
-                    timeSlot = new TimeSlot(startTime, endTime);
-                    schedule.put(spot, timeSlot); // Add to schedule
-                }
-
-                TravelInfo travelInfo = null;
-                if (i > 0) {
-                    TouristSpot previousSpot = sortedSpots.get(i - 1);
-                    travelInfo = itineraryGenerator.getTravelInfo(previousSpot, spot);
-                }
-                
-                JPanel spotTimeSlot = createSpotTimeSlot(spot, timeSlot, date, travelInfo);
+            for (ItineraryPlan.Visit visit : day.getVisits()) {
+                JPanel spotTimeSlot = createSpotTimeSlot(visit.getSpot(), visit.getTimeSlot(), date,
+                        visit.getTravelFromPrevious());
                 dayCard.add(spotTimeSlot);
                 dayCard.add(Box.createVerticalStrut(10));
             }
 
-            JPanel recommendationsPanel = createTimeBasedRecommendations(date, schedule, spots, dayNumber);
+            JPanel recommendationsPanel = createTimeBasedRecommendations(date, schedule, spots, dayNumber, day.getWeather());
             dayCard.add(recommendationsPanel);
         }
         
@@ -511,6 +490,14 @@ public class SmartItineraryPage extends JFrame {
             detailsPanel.add(crowdLabel);
         }
 
+        if (!itineraryGenerator.checkOpeningHours(spot, date)) {
+            String day = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+            JLabel closedLabel = new JLabel("⚠ Closed on " + day + " - consider another day");
+            closedLabel.setFont(new Font("SansSerif", Font.BOLD, 9));
+            closedLabel.setForeground(new Color(200, 50, 50));
+            detailsPanel.add(closedLabel);
+        }
+
         if (travelInfo != null) {
             JLabel travelLabel = new JLabel("🚗 Travel: " + travelInfo.getBestOption());
             travelLabel.setFont(new Font("SansSerif", Font.PLAIN, 9));
@@ -563,7 +550,8 @@ public class SmartItineraryPage extends JFrame {
     private JPanel createTimeBasedRecommendations(LocalDate date, 
                                                   Map<TouristSpot, TimeSlot> schedule, 
                                                   List<TouristSpot> spots,
-                                                  int dayNumber) {
+                                                  int dayNumber,
+                                                  WeatherForecast weather) {
         JPanel recommendationsPanel = new JPanel();
         recommendationsPanel.setLayout(new BoxLayout(recommendationsPanel, BoxLayout.Y_AXIS));
         recommendationsPanel.setBackground(new Color(255, 250, 240));
@@ -572,7 +560,6 @@ public class SmartItineraryPage extends JFrame {
                 new EmptyBorder(15, 15, 15, 15)));
         
         String cityName = getCityNameFromCode(destinationCode);
-        WeatherForecast weather = weatherService.getWeatherForecast(destinationCode, date);
 
         boolean hasMorning = false, hasAfternoon = false, hasEvening = false;
         for (TouristSpot spot : spots) {
@@ -701,75 +688,6 @@ public class SmartItineraryPage extends JFrame {
         return recommendations.subList(0, Math.min(4, recommendations.size()));
     }
     
-    /**
-     * Calculate total duration for a day's spots including travel time
-     */
-    private int calculateDayDuration(List<TouristSpot> daySpots) {
-        if (daySpots.isEmpty()) {
-            return 0;
-        }
-        
-        double totalDuration = daySpots.get(0).getEstimatedDuration();
-        for (int i = 1; i < daySpots.size(); i++) {
-            TouristSpot prev = daySpots.get(i - 1);
-            TouristSpot curr = daySpots.get(i);
-            int travelTime = itineraryGenerator.calculateTravelTimeMinutes(prev, curr);
-            totalDuration += curr.getEstimatedDuration() + (travelTime / 60.0);
-        }
-        
-        return (int) Math.ceil(totalDuration);
-    }
-    
-    /**
-     * Get recommended spots for extra time in a day
-     * Only adds spots if there's available time, and keeps all selected spots
-     */
-    private List<TouristSpot> getRecommendedSpotsForExtraTime(String destinationCode, 
-                                                              Set<Integer> alreadySelectedIds,
-                                                              List<TouristSpot> existingDaySpots,
-                                                              int availableHours) {
-        List<TouristSpot> recommended = new ArrayList<>();
-
-        List<TouristSpot> allSpots = touristSpotService.getTouristSpotsByDestination(destinationCode);
-
-        List<TouristSpot> availableSpots = allSpots.stream()
-                .filter(spot -> !alreadySelectedIds.contains(spot.getId()))
-                .filter(spot -> !existingDaySpots.contains(spot)) // Not already in this day
-                .collect(java.util.stream.Collectors.toList());
-
-        availableSpots.sort(Comparator.comparingDouble(TouristSpot::getDistanceFromCityCenter));
-
-        int usedHours = 0;
-        Set<String> categories = new HashSet<>();
-        for (TouristSpot spot : existingDaySpots) {
-            categories.add(spot.getCategory());
-        }
-        
-        for (TouristSpot spot : availableSpots) {
-            if (usedHours >= availableHours - 1) {
-                break; // Stop if we've used most of available time
-            }
-            
-            double spotDuration = spot.getEstimatedDuration();
-            int travelTime = existingDaySpots.isEmpty() ? 0 : 1; // Estimate 1 hour travel
-            
-            if (usedHours + (int) Math.ceil(spotDuration) + travelTime <= availableHours) {
-
-                if (!categories.contains(spot.getCategory()) || recommended.size() < 2) {
-                    recommended.add(spot);
-                    usedHours += spotDuration + travelTime;
-                    categories.add(spot.getCategory());
-                    
-                    if (recommended.size() >= 3) {
-                        break; // Max 3 recommendations per day
-                    }
-                }
-            }
-        }
-        
-        return recommended;
-    }
-    
     /**
      * Get recommended spots for a day with fewer activities
      */
@@ -813,18 +731,4 @@ public class SmartItineraryPage extends JFrame {
         return recommended;
     }
     
-    /**
-     * Round LocalTime to nearest 15-minute interval (00, 15, 30, 45)
-     */
-    private LocalTime roundTimeTo15Minutes(LocalTime time) {
-        int minutes = time.getMinute();
-        int roundedMinutes = ((minutes + 7) / 15) * 15; // Round to nearest 15
-        
-        if (roundedMinutes >= 60) {
-            return time.plusHours(1).withMinute(0).withSecond(0).withNano(0);
-        } else {
-            return time.withMinute(roundedMinutes).withSecond(0).withNano(0);
-        }
-    }
-    
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.dlightplanner.gui;
 
+import com.dlightplanner.gui.Components.VirtualCardList;
 import com.dlightplanner.models.Hotel;
 import com.dlightplanner.models.TouristSpot;
 import com.dlightplanner.services.AirportService;
+import com.dlightplanner.services.DataLoader;
+import com.dlightplanner.services.ImagePathResolver;
 import com.dlightplanner.services.TouristSpotService;
+import com.dlightplanner.utils.ImageUtils;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -19,12 +23,13 @@ public class TouristSpotsPage extends JFrame {
     
     private final TouristSpotService touristSpotService;
     private final AirportService airportService;
+    private final ImagePathResolver imagePaths;
     private final String destinationCode;
     private final LocalDate checkInDate;
     private final LocalDate checkOutDate;
     private final Hotel selectedHotel;
     
-    private JPanel spotsListPanel;
+    private VirtualCardList<TouristSpot> spotsListPanel;
     private List<TouristSpot> allSpots;
     private Set<Integer> selectedSpotIds = new HashSet<>();
     private JButton continueButton;
@@ -59,11 +64,10 @@ public class TouristSpotsPage extends JFrame {
             previousFrame.setVisible(false);
         }
         
-        touristSpotService = new TouristSpotService();
-        touristSpotService.loadTouristSpotsFromJson("resources/tourist_spots.json");
-        
-        airportService = new AirportService();
-        airportService.loadAirportsFromJson("resources/airports.json");
+        DataLoader catalog = DataLoader.getInstance();
+        touristSpotService = catalog.getTouristSpotService();
+        airportService = catalog.getAirportService();
+        imagePaths = catalog.getImagePathResolver();
         
         String cityName = getCityNameFromCode(destinationCode);
         allSpots = touristSpotService.getTouristSpotsByDestination(destinationCode);
@@ -86,17 +90,20 @@ public class TouristSpotsPage extends JFrame {
         add(buildHeaderPanel(cityName), BorderLayout.NORTH);
         add(buildContentPanel(), BorderLayout.CENTER);
         add(buildFooterPanel(), BorderLayout.SOUTH);
+
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                System.out.println(ImageUtils.getStats());
+            }
+        });
         
         renderSpots(allSpots);
         setVisible(true);
     }
     
     private String getCityNameFromCode(String code) {
-        return airportService.getAirports().stream()
-                .filter(airport -> airport.getIata().equalsIgnoreCase(code))
-                .map(airport -> airport.getCity())
-                .findFirst()
-                .orElse(code);
+        return airportService.getCityName(code);
     }
     
     private JPanel buildHeaderPanel(String cityName) {
@@ -195,9 +202,7 @@ public class TouristSpotsPage extends JFrame {
         JPanel center = new JPanel(new BorderLayout());
         center.setBorder(new EmptyBorder(15, 25, 10, 25));
         
-        spotsListPanel = new JPanel();
-        spotsListPanel.setLayout(new BoxLayout(spotsListPanel, BoxLayout.Y_AXIS));
-        spotsListPanel.setOpaque(false);
+        spotsListPanel = new VirtualCardList<>(this::createSpotCard, 15);
         
         JScrollPane scrollPane = new JScrollPane(spotsListPanel);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
@@ -239,22 +244,12 @@ public class TouristSpotsPage extends JFrame {
     }
     
     private void renderSpots(List<TouristSpot> spots) {
-        spotsListPanel.removeAll();
-        
-        if (spots.isEmpty()) {
-            JLabel noSpots = new JLabel("No tourist spots found matching your criteria.");
-            noSpots.setFont(new Font("SansSerif", Font.PLAIN, 14));
-            noSpots.setBorder(new EmptyBorder(20, 0, 20, 0));
-            spotsListPanel.add(noSpots);
-        } else {
-            for (TouristSpot spot : spots) {
-                spotsListPanel.add(createSpotCard(spot));
-                spotsListPanel.add(Box.createVerticalStrut(15));
-            }
-        }
-        
-        spotsListPanel.revalidate();
-        spotsListPanel.repaint();
+        JLabel noSpots = new JLabel("No tourist spots found matching your criteria.");
+        noSpots.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        noSpots.setBorder(new EmptyBorder(20, 0, 20, 0));
+
+        // Cards are built as they scroll into view
+        spotsListPanel.setItems(spots, noSpots);
     }
     
     private JPanel createSpotCard(TouristSpot spot) {
@@ -265,19 +260,10 @@ public class TouristSpotsPage extends JFrame {
                 new EmptyBorder(15, 15, 15, 15)));
 
         JLabel imageLabel = new JLabel();
-        try {
-            ImageIcon icon = new ImageIcon("resources/images/" + spot.getImagePath());
-            if (icon.getIconWidth() > 0) {
-                Image scaled = icon.getImage().getScaledInstance(200, 150, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaled));
-            } else {
-                imageLabel.setText("No Image");
-                imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            }
-        } catch (Exception e) {
+        ImageUtils.loadInto(imageLabel, imagePaths.resolve(spot), 200, 150, () -> {
             imageLabel.setText("No Image");
             imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        }
+        });
         imageLabel.setPreferredSize(new Dimension(200, 150));
         imageLabel.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
 
@@ -1,5 +1,7 @@
 package com.dlightplanner.gui;
 
+import com.dlightplanner.services.DataLoader;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -666,6 +668,7 @@ public class VoyaWelcome extends JFrame {
     }
 
     public static void main(String[] args) {
+        DataLoader.preload();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -5,6 +5,8 @@ public class Airport {
     private String city;
     private String airportName;
     private String iata;
+    private double latitude;
+    private double longitude;
 
     public Airport() {}
 
@@ -15,6 +17,12 @@ public class Airport {
         this.iata = iata;
     }
 
+    public Airport(int id, String city, String airportName, String iata, double latitude, double longitude) {
+        this(id, city, airportName, iata);
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     public String getCity() { return city; }
@@ -23,4 +31,8 @@ public class Airport {
     public void setAirportName(String airportName) { this.airportName = airportName; }
     public String getIata() { return iata; }
     public void setIata(String iata) { this.iata = iata; }
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
 }
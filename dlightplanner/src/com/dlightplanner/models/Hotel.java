@@ -12,6 +12,8 @@ public class Hotel {
     private double pricePerNight; // base price for 2-bed room
     private double distanceFromCityCenter; // in km
     private List<String> amenities; // list of amenities
+    private double latitude; // set when the hotel is placed in a destination; 0/0 if unknown
+    private double longitude;
 
     public Hotel() {}
 
@@ -37,6 +39,9 @@ public class Hotel {
     public double getPricePerNight() { return pricePerNight; }
     public double getDistanceFromCityCenter() { return distanceFromCityCenter; }
     public List<String> getAmenities() { return amenities; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public boolean hasCoordinates() { return latitude != 0 || longitude != 0; }
 
     public void setId(int id) { this.id = id; }
     public void setName(String name) { this.name = name; }
@@ -47,6 +52,8 @@ public class Hotel {
     public void setPricePerNight(double pricePerNight) { this.pricePerNight = pricePerNight; }
     public void setDistanceFromCityCenter(double distanceFromCityCenter) { this.distanceFromCityCenter = distanceFromCityCenter; }
     public void setAmenities(List<String> amenities) { this.amenities = amenities; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
 
     /**
      * Calculate price for different bed configurations
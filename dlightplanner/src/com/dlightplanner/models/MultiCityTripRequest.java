@@ -3,6 +3,7 @@ package com.dlightplanner.models;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class MultiCityTripRequest {
     private final String originCode;
@@ -135,6 +136,21 @@ public class MultiCityTripRequest {
         public LocalDate getDate() {
             return date;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FlightLeg)) return false;
+            FlightLeg other = (FlightLeg) o;
+            return Objects.equals(fromCode, other.fromCode)
+                    && Objects.equals(toCode, other.toCode)
+                    && Objects.equals(date, other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromCode, toCode, date);
+        }
     }
 }
 
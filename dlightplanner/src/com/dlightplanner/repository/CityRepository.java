@@ -2,13 +2,17 @@ package com.dlightplanner.repository;
 
 import com.dlightplanner.models.City;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CityRepository {
     private List<City> cities = new ArrayList<>();
+    private Map<Integer, City> citiesById = new HashMap<>();
 
     public void addCity(City city) {
         cities.add(city);
+        citiesById.putIfAbsent(city.getId(), city);
     }
 
     public List<City> getAllCities() {
@@ -16,11 +20,6 @@ public class CityRepository {
     }
 
     public City getCityById(int id) {
-        for (City city : cities) {
-            if (city.getId() == id) {
-                return city;
-            }
-        }
-        return null;
+        return citiesById.get(id);
     }
 }
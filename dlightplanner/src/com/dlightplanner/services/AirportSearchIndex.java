@@ -0,0 +1,351 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Airport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Airport Search Index - ranked autocomplete over the airport catalog, built once.
+ *
+ * Each airport is offered as "City (IATA)". Queries are matched, best first, as
+ * - the exact option or IATA code
+ * - a prefix of the city, the IATA code, or a word of the city or airport name, found
+ *   by binary search over the sorted terms (a flattened prefix trie)
+ * - a substring of "city iata airport name", found through a trigram index
+ * - a term within one or two typos (adjacent swaps count as one), found through the
+ *   trigrams of the space-padded terms and checked with an edit distance
+ * Ties keep catalog order.
+ */
+public class AirportSearchIndex {
+    // Match scores; higher ranks first
+    private static final int EXACT_OPTION = 2000;
+    private static final int EXACT_IATA = 1000;
+    private static final int EXACT_CITY = 950;
+    private static final int CITY_PREFIX = 900;
+    private static final int IATA_PREFIX = 800;
+    private static final int CITY_WORD_PREFIX = 700;
+    private static final int NAME_WORD_PREFIX = 600;
+    private static final int SUBSTRING = 500;
+    private static final int TYPO = 300;
+
+    private final String[] options;
+    private final String[] normalizedOptions;
+    private final String[] searchText;
+
+    // Prefix search: sorted distinct terms, with the entries (and their field score) per term
+    private final String[] terms;
+    private final int[][] termEntries;
+    private final int[][] termScores;
+
+    private final Map<String, int[]> entriesByTrigram;
+    private final Map<String, int[]> termsByTrigram;
+
+    public AirportSearchIndex(List<Airport> airports) {
+        int n = airports.size();
+        options = new String[n];
+        normalizedOptions = new String[n];
+        searchText = new String[n];
+
+        TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+        Map<String, Set<Integer>> entryTrigrams = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Airport airport = airports.get(i);
+            String city = normalize(airport.getCity());
+            String iata = normalize(airport.getIata());
+            String name = normalize(airport.getAirportName());
+
+            options[i] = airport.getCity() + " (" + airport.getIata() + ")";
+            normalizedOptions[i] = normalize(options[i]);
+            searchText[i] = join(city, iata, name);
+
+            addTerm(postings, city, i, CITY_PREFIX);
+            addTerm(postings, iata, i, IATA_PREFIX);
+            for (String word : city.split(" ")) {
+                addTerm(postings, word, i, CITY_WORD_PREFIX);
+            }
+            for (String word : name.split(" ")) {
+                addTerm(postings, word, i, NAME_WORD_PREFIX);
+            }
+            for (String trigram : trigrams(searchText[i])) {
+                entryTrigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(i);
+            }
+        }
+
+        terms = postings.keySet().toArray(new String[0]);
+        termEntries = new int[terms.length][];
+        termScores = new int[terms.length][];
+        Map<String, Set<Integer>> termTrigrams = new HashMap<>();
+        int t = 0;
+        for (Map.Entry<String, Map<Integer, Integer>> entry : postings.entrySet()) {
+            Map<Integer, Integer> scores = entry.getValue();
+            termEntries[t] = new int[scores.size()];
+            termScores[t] = new int[scores.size()];
+            int k = 0;
+            for (Map.Entry<Integer, Integer> score : scores.entrySet()) {
+                termEntries[t][k] = score.getKey();
+                termScores[t][k] = score.getValue();
+                k++;
+            }
+            for (String trigram : trigrams(" " + entry.getKey() + " ")) {
+                termTrigrams.computeIfAbsent(trigram, x -> new HashSet<>()).add(t);
+            }
+            t++;
+        }
+        entriesByTrigram = toSortedArrays(entryTrigrams);
+        termsByTrigram = toSortedArrays(termTrigrams);
+    }
+
+    public int size() {
+        return options.length;
+    }
+
+    /**
+     * All options, in catalog order
+     */
+    public List<String> getOptions() {
+        return Arrays.asList(options);
+    }
+
+    /**
+     * Up to limit options matching the query, best first; every option for a blank query
+     */
+    public List<String> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return new ArrayList<>(Arrays.asList(options));
+        }
+
+        int[] score = new int[options.length];
+        List<Integer> matched = new ArrayList<>();
+
+        matchPrefixes(q, score, matched);
+        matchSubstrings(q, score, matched, limit);
+        // Typos rank below every real match, so they only matter when there are too few
+        if (q.length() >= 3 && matched.size() < limit) {
+            matchTypos(q, score, matched);
+        }
+
+        matched.sort((a, b) -> score[a] != score[b] ? score[b] - score[a] : a - b);
+        List<String> results = new ArrayList<>(Math.min(limit, matched.size()));
+        for (int i = 0; i < matched.size() && results.size() < limit; i++) {
+            results.add(options[matched.get(i)]);
+        }
+        return results;
+    }
+
+    private void matchPrefixes(String q, int[] score, List<Integer> matched) {
+        for (int t = lowerBound(q); t < terms.length && terms[t].startsWith(q); t++) {
+            boolean exact = terms[t].length() == q.length();
+            for (int k = 0; k < termEntries[t].length; k++) {
+                int fieldScore = termScores[t][k];
+                if (exact && fieldScore == IATA_PREFIX) {
+                    fieldScore = EXACT_IATA;
+                } else if (exact && fieldScore == CITY_PREFIX) {
+                    fieldScore = EXACT_CITY;
+                }
+                raise(score, matched, termEntries[t][k], fieldScore);
+            }
+        }
+    }
+
+    private void matchSubstrings(String q, int[] score, List<Integer> matched, int limit) {
+        if (q.length() < 3) {
+            // No trigram to look up: scan, but only to fill up short prefix results
+            for (int i = 0; i < searchText.length && matched.size() < limit; i++) {
+                if (score[i] == 0 && searchText[i].contains(q)) {
+                    raise(score, matched, i, SUBSTRING);
+                }
+            }
+            return;
+        }
+        int[] candidates = null;
+        for (String trigram : trigrams(q)) {
+            int[] entries = entriesByTrigram.get(trigram);
+            if (entries == null) {
+                candidates = null;
+                break;
+            }
+            if (candidates == null || entries.length < candidates.length) {
+                candidates = entries;
+            }
+        }
+        if (candidates != null) {
+            for (int i : candidates) {
+                if (normalizedOptions[i].equals(q)) {
+                    raise(score, matched, i, EXACT_OPTION);
+                } else if (searchText[i].contains(q)) {
+                    raise(score, matched, i, SUBSTRING);
+                }
+            }
+        }
+    }
+
+    private void matchTypos(String q, int[] score, List<Integer> matched) {
+        int maxEdits = q.length() <= 5 ? 1 : 2;
+        Set<String> queryTrigrams = trigrams(" " + q);
+        // Each edit breaks at most three trigrams, so a close term shares at least this many
+        int minShared = Math.max(1, queryTrigrams.size() - 3 * maxEdits);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            int[] ids = termsByTrigram.get(trigram);
+            if (ids != null) {
+                for (int t : ids) {
+                    shared.merge(t, 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            if (candidate.getValue() < minShared) {
+                continue;
+            }
+            int t = candidate.getKey();
+            int edits = prefixDistance(q, terms[t], maxEdits);
+            if (edits > maxEdits) {
+                continue;
+            }
+            for (int k = 0; k < termEntries[t].length; k++) {
+                // Closer matches and better fields first, always below real matches
+                raise(score, matched, termEntries[t][k], TYPO - 100 * edits + termScores[t][k] / 10);
+            }
+        }
+    }
+
+    private static void raise(int[] score, List<Integer> matched, int entry, int value) {
+        if (score[entry] == 0) {
+            matched.add(entry);
+        }
+        if (value > score[entry]) {
+            score[entry] = value;
+        }
+    }
+
+    /**
+     * First term >= key
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Smallest edit distance between the query and a prefix of the term of about the
+     * query's length; adjacent swaps count as one edit. Returns maxEdits + 1 when larger.
+     * One table over the term's first q.length() + maxEdits characters covers every prefix.
+     */
+    static int prefixDistance(String q, String term, int maxEdits) {
+        int m = q.length();
+        int n = Math.min(term.length(), m + maxEdits);
+        if (n < m - maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] before = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= n; j++) {
+                int cost = q.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && q.charAt(i - 1) == term.charAt(j - 2) && q.charAt(i - 2) == term.charAt(j - 1)) {
+                    value = Math.min(value, before[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = maxEdits + 1;
+        for (int j = Math.max(1, m - maxEdits); j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static void addTerm(Map<String, Map<Integer, Integer>> postings, String term, int entry, int fieldScore) {
+        if (term.isEmpty()) {
+            return;
+        }
+        postings.computeIfAbsent(term, t -> new HashMap<>()).merge(entry, fieldScore, Math::max);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static Map<String, int[]> toSortedArrays(Map<String, Set<Integer>> sets) {
+        Map<String, int[]> arrays = new HashMap<>(sets.size() * 2);
+        for (Map.Entry<String, Set<Integer>> entry : sets.entrySet()) {
+            int[] ids = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            Arrays.sort(ids);
+            arrays.put(entry.getKey(), ids);
+        }
+        return arrays;
+    }
+
+    private static String join(String... parts) {
+        StringBuilder text = new StringBuilder();
+        for (String part : parts) {
+            if (!part.isEmpty()) {
+                if (text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(part);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Lower case, with anything but letters and digits turned into single spaces
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+}
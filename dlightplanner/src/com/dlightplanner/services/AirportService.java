@@ -6,23 +6,94 @@ import com.google.gson.reflect.TypeToken;
 
 import java.io.FileReader;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class AirportService {
     private List<Airport> airports;
+    private Map<String, Airport> airportsByIata = new HashMap<>();
+    private volatile AirportSearchIndex searchIndex;
 
     public void loadAirportsFromJson(String path) {
         try {
             Gson gson = new Gson();
             Reader reader = new FileReader(path);
-            airports = gson.fromJson(reader, new TypeToken<List<Airport>>(){}.getType());
+            List<Airport> loaded = gson.fromJson(reader, new TypeToken<List<Airport>>(){}.getType());
             reader.close();
+            setAirports(loaded != null ? loaded : new ArrayList<>());
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Use an already-loaded airport list (e.g. from the catalog snapshot)
+     */
+    public void setAirports(List<Airport> loaded) {
+        airports = Collections.unmodifiableList(loaded);
+        buildIndex();
+        searchIndex = null;
+    }
+
     public List<Airport> getAirports() {
         return airports;
     }
+
+    private void buildIndex() {
+        Map<String, Airport> index = new HashMap<>();
+        for (Airport airport : airports) {
+            if (airport.getIata() != null) {
+                index.putIfAbsent(normalizeCode(airport.getIata()), airport);
+            }
+        }
+        airportsByIata = index;
+    }
+
+    /**
+     * Get an airport by IATA code (case-insensitive)
+     * @return the airport, or null if the code is unknown
+     */
+    public Airport getAirportByIata(String code) {
+        if (code == null) {
+            return null;
+        }
+        Airport airport = airportsByIata.get(code);
+        if (airport == null) {
+            airport = airportsByIata.get(normalizeCode(code));
+        }
+        return airport;
+    }
+
+    /**
+     * Get the city name for an IATA code, falling back to the code itself
+     */
+    public String getCityName(String code) {
+        Airport airport = getAirportByIata(code);
+        return airport != null ? airport.getCity() : code;
+    }
+
+    /**
+     * Autocomplete index over the airports, built on first use
+     */
+    public AirportSearchIndex getSearchIndex() {
+        AirportSearchIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = new AirportSearchIndex(airports != null ? airports : new ArrayList<>());
+                    searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static String normalizeCode(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,484 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Airport;
+import com.dlightplanner.models.City;
+import com.dlightplanner.models.Hotel;
+import com.dlightplanner.models.TouristSpot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Catalog Snapshot - compact binary copy of airports, cities, hotels and tourist spots.
+ *
+ * Layout: header (magic, version, size/mtime of each source JSON file), a de-duplicated
+ * UTF-8 string table, an int pool for hotel amenities, then one fixed-width record per
+ * item. Strings are stored as string-table indexes (-1 for null). The file is opened
+ * through a MappedByteBuffer and records/strings are decoded on first access.
+ * The ids, destination codes and image paths of hotels and tourist spots can be read
+ * straight from the records, so indexes over them don't decode the records.
+ *
+ * Run main() to (re)build the snapshot from the JSON files.
+ */
+public class CatalogSnapshot {
+    public static final String DEFAULT_PATH = "resources/catalog.snapshot";
+
+    private static final long MAGIC = 0x564F59414341544CL; // "VOYACATL"
+    private static final int VERSION = 2;
+
+    private static final int AIRPORT_RECORD = 4 * 4 + 2 * 8;
+    private static final int CITY_RECORD = 8 * 4;
+    private static final int HOTEL_RECORD = 8 * 4 + 2 * 8;
+    private static final int SPOT_RECORD = 12 * 4 + 5 * 8;
+
+    private final ByteBuffer buffer;
+    private final int stringOffsetsStart;
+    private final int stringDataStart;
+    private final String[] strings;
+    private final int amenityPoolStart;
+    private final int hotelStart;
+    private final int spotStart;
+
+    private final List<Airport> airports;
+    private final List<City> cities;
+    private final List<Hotel> hotels;
+    private final List<TouristSpot> touristSpots;
+
+    private CatalogSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        int pos = 8 + 4;
+        int sourceCount = buffer.getInt(pos);
+        pos += 4 + sourceCount * 16;
+
+        int stringCount = buffer.getInt(pos);
+        pos += 4;
+        stringOffsetsStart = pos;
+        pos += (stringCount + 1) * 4;
+        stringDataStart = pos;
+        pos += buffer.getInt(stringOffsetsStart + stringCount * 4);
+        strings = new String[stringCount];
+
+        int amenityCount = buffer.getInt(pos);
+        pos += 4;
+        amenityPoolStart = pos;
+        pos += amenityCount * 4;
+
+        int airportCount = buffer.getInt(pos);
+        int airportStart = pos + 4;
+        pos = airportStart + airportCount * AIRPORT_RECORD;
+        airports = new LazyRecordList<>(airportCount, i -> readAirport(airportStart + i * AIRPORT_RECORD));
+
+        int cityCount = buffer.getInt(pos);
+        int cityStart = pos + 4;
+        pos = cityStart + cityCount * CITY_RECORD;
+        cities = new LazyRecordList<>(cityCount, i -> readCity(cityStart + i * CITY_RECORD));
+
+        int hotelCount = buffer.getInt(pos);
+        hotelStart = pos + 4;
+        pos = hotelStart + hotelCount * HOTEL_RECORD;
+        hotels = new LazyRecordList<>(hotelCount, i -> readHotel(hotelStart + i * HOTEL_RECORD));
+
+        int spotCount = buffer.getInt(pos);
+        spotStart = pos + 4;
+        touristSpots = new LazyRecordList<>(spotCount, i -> readSpot(spotStart + i * SPOT_RECORD));
+    }
+
+    /**
+     * Open a snapshot if it exists and was built from the current versions of the source files
+     * @param snapshotPath snapshot file
+     * @param sourcePaths JSON files the snapshot was built from, in the order used by write()
+     * @return the snapshot, or null if it is missing, unreadable or stale
+     */
+    public static CatalogSnapshot openIfFresh(String snapshotPath, String... sourcePaths) {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Check the header with plain reads; only a fresh snapshot is mapped
+            ByteBuffer header = ByteBuffer.allocate(16);
+            if (!readFully(channel, header, 0) || header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+                return null;
+            }
+
+            int sourceCount = header.getInt(12);
+            if (sourceCount != sourcePaths.length) {
+                return null;
+            }
+            ByteBuffer fingerprints = ByteBuffer.allocate(16 * sourceCount);
+            if (!readFully(channel, fingerprints, 16)) {
+                return null;
+            }
+            int pos = 0;
+            for (String source : sourcePaths) {
+                long[] fingerprint = fingerprint(source);
+                if (fingerprints.getLong(pos) != fingerprint[0] || fingerprints.getLong(pos + 8) != fingerprint[1]) {
+                    return null;
+                }
+                pos += 16;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(buffer);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable catalog snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fill the buffer from the given file position
+     * @return false if the file ends first
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write a snapshot of the given catalog. The file is written next to the target
+     * and moved into place so readers never see a partial snapshot.
+     */
+    public static void write(String snapshotPath, String[] sourcePaths,
+                             List<Airport> airports, List<City> cities,
+                             List<Hotel> hotels, List<TouristSpot> touristSpots) throws IOException {
+        Map<String, Integer> stringTable = new LinkedHashMap<>();
+        List<Integer> amenityPool = new ArrayList<>();
+
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+
+        records.writeInt(airports.size());
+        for (Airport a : airports) {
+            records.writeInt(a.getId());
+            records.writeInt(intern(stringTable, a.getCity()));
+            records.writeInt(intern(stringTable, a.getAirportName()));
+            records.writeInt(intern(stringTable, a.getIata()));
+            records.writeDouble(a.getLatitude());
+            records.writeDouble(a.getLongitude());
+        }
+
+        records.writeInt(cities.size());
+        for (City c : cities) {
+            records.writeInt(c.getId());
+            records.writeInt(intern(stringTable, c.getName()));
+            records.writeInt(intern(stringTable, c.getImagePath()));
+            records.writeInt(intern(stringTable, c.getOverview()));
+            records.writeInt(intern(stringTable, c.getAttractions()));
+            records.writeInt(intern(stringTable, c.getActivities()));
+            records.writeInt(intern(stringTable, c.getDining()));
+            records.writeInt(intern(stringTable, c.getShopping()));
+        }
+
+        records.writeInt(hotels.size());
+        for (Hotel h : hotels) {
+            records.writeInt(h.getId());
+            records.writeInt(intern(stringTable, h.getName()));
+            records.writeInt(intern(stringTable, h.getDestinationCode()));
+            records.writeInt(h.getStarRating());
+            records.writeInt(intern(stringTable, h.getLocation()));
+            records.writeInt(intern(stringTable, h.getImagePath()));
+            records.writeDouble(h.getPricePerNight());
+            records.writeDouble(h.getDistanceFromCityCenter());
+            List<String> amenities = h.getAmenities();
+            if (amenities == null) {
+                records.writeInt(-1);
+                records.writeInt(0);
+            } else {
+                records.writeInt(amenityPool.size());
+                records.writeInt(amenities.size());
+                for (String amenity : amenities) {
+                    amenityPool.add(intern(stringTable, amenity));
+                }
+            }
+        }
+
+        records.writeInt(touristSpots.size());
+        for (TouristSpot s : touristSpots) {
+            records.writeInt(s.getId());
+            records.writeInt(intern(stringTable, s.getName()));
+            records.writeInt(intern(stringTable, s.getDestinationCode()));
+            records.writeInt(intern(stringTable, s.getDescription()));
+            records.writeInt(intern(stringTable, s.getCategory()));
+            records.writeInt(intern(stringTable, s.getImagePath()));
+            records.writeInt(intern(stringTable, s.getLocation()));
+            records.writeInt(intern(stringTable, s.getOpeningHours()));
+            records.writeInt(intern(stringTable, s.getBestVisitingTime()));
+            records.writeInt(intern(stringTable, s.getPeakHours()));
+            records.writeInt(intern(stringTable, s.getCrowdLevel()));
+            records.writeInt(intern(stringTable, s.getClosedDays()));
+            records.writeDouble(s.getPrice());
+            records.writeDouble(s.getDistanceFromCityCenter());
+            records.writeDouble(s.getEstimatedDuration());
+            records.writeDouble(s.getLatitude());
+            records.writeDouble(s.getLongitude());
+        }
+        records.flush();
+
+        Path target = Paths.get(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(temp));
+             DataOutputStream out = new DataOutputStream(fileOut)) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sourcePaths.length);
+            for (String source : sourcePaths) {
+                long[] fingerprint = fingerprint(source);
+                out.writeLong(fingerprint[0]);
+                out.writeLong(fingerprint[1]);
+            }
+
+            List<byte[]> encoded = new ArrayList<>(stringTable.size());
+            for (String s : stringTable.keySet()) {
+                encoded.add(s.getBytes(StandardCharsets.UTF_8));
+            }
+            out.writeInt(encoded.size());
+            int offset = 0;
+            for (byte[] bytes : encoded) {
+                out.writeInt(offset);
+                offset += bytes.length;
+            }
+            out.writeInt(offset);
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+
+            out.writeInt(amenityPool.size());
+            for (int index : amenityPool) {
+                out.writeInt(index);
+            }
+
+            recordBytes.writeTo(out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int intern(Map<String, Integer> stringTable, String value) {
+        if (value == null) {
+            return -1;
+        }
+        return stringTable.computeIfAbsent(value, k -> stringTable.size());
+    }
+
+    /**
+     * Size and last-modified time of a source file, used to detect a stale snapshot
+     */
+    private static long[] fingerprint(String sourcePath) throws IOException {
+        Path path = Paths.get(sourcePath);
+        return new long[]{Files.size(path), Files.getLastModifiedTime(path).toMillis()};
+    }
+
+    public List<Airport> getAirports() {
+        return airports;
+    }
+
+    public List<City> getCities() {
+        return cities;
+    }
+
+    public List<Hotel> getHotels() {
+        return hotels;
+    }
+
+    public List<TouristSpot> getTouristSpots() {
+        return touristSpots;
+    }
+
+    /**
+     * Id of each hotel, in list order
+     */
+    public int[] getHotelIds() {
+        return intFields(hotelStart, hotels.size(), HOTEL_RECORD, 0);
+    }
+
+    public String[] getHotelImagePaths() {
+        return stringFields(hotelStart, hotels.size(), HOTEL_RECORD, 20);
+    }
+
+    /**
+     * Id of each tourist spot, in list order
+     */
+    public int[] getTouristSpotIds() {
+        return intFields(spotStart, touristSpots.size(), SPOT_RECORD, 0);
+    }
+
+    public String[] getTouristSpotDestinationCodes() {
+        return stringFields(spotStart, touristSpots.size(), SPOT_RECORD, 8);
+    }
+
+    public String[] getTouristSpotImagePaths() {
+        return stringFields(spotStart, touristSpots.size(), SPOT_RECORD, 20);
+    }
+
+    /**
+     * One int field of every record in a section
+     */
+    private int[] intFields(int start, int count, int recordSize, int fieldOffset) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = buffer.getInt(start + i * recordSize + fieldOffset);
+        }
+        return values;
+    }
+
+    /**
+     * One string field of every record in a section
+     */
+    private String[] stringFields(int start, int count, int recordSize, int fieldOffset) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = stringAt(start + i * recordSize + fieldOffset);
+        }
+        return values;
+    }
+
+    private String string(int index) {
+        if (index < 0) {
+            return null;
+        }
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(stringOffsetsStart + index * 4);
+            int end = buffer.getInt(stringOffsetsStart + (index + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringDataStart + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    private String stringAt(int pos) {
+        return string(buffer.getInt(pos));
+    }
+
+    private Airport readAirport(int pos) {
+        return new Airport(buffer.getInt(pos), stringAt(pos + 4), stringAt(pos + 8), stringAt(pos + 12),
+                buffer.getDouble(pos + 16), buffer.getDouble(pos + 24));
+    }
+
+    private City readCity(int pos) {
+        return new City(buffer.getInt(pos), stringAt(pos + 4), stringAt(pos + 8), stringAt(pos + 12),
+                stringAt(pos + 16), stringAt(pos + 20), stringAt(pos + 24), stringAt(pos + 28));
+    }
+
+    private Hotel readHotel(int pos) {
+        List<String> amenities = null;
+        int amenityStart = buffer.getInt(pos + 40);
+        if (amenityStart >= 0) {
+            int amenityCount = buffer.getInt(pos + 44);
+            amenities = new ArrayList<>(amenityCount);
+            for (int i = 0; i < amenityCount; i++) {
+                amenities.add(string(buffer.getInt(amenityPoolStart + (amenityStart + i) * 4)));
+            }
+        }
+        return new Hotel(buffer.getInt(pos), stringAt(pos + 4), stringAt(pos + 8), buffer.getInt(pos + 12),
+                stringAt(pos + 16), stringAt(pos + 20), buffer.getDouble(pos + 24), buffer.getDouble(pos + 32),
+                amenities);
+    }
+
+    private TouristSpot readSpot(int pos) {
+        return new TouristSpot(
+                buffer.getInt(pos),
+                stringAt(pos + 4),
+                stringAt(pos + 8),
+                stringAt(pos + 12),
+                stringAt(pos + 16),
+                buffer.getDouble(pos + 48),
+                stringAt(pos + 20),
+                buffer.getDouble(pos + 56),
+                buffer.getDouble(pos + 64),
+                stringAt(pos + 24),
+                stringAt(pos + 28),
+                stringAt(pos + 32),
+                stringAt(pos + 36),
+                stringAt(pos + 40),
+                stringAt(pos + 44),
+                buffer.getDouble(pos + 72),
+                buffer.getDouble(pos + 80));
+    }
+
+    /**
+     * Fixed-size list that decodes each record the first time it is read. Reads take no
+     * lock; when two threads decode the same record at once the first one stored wins,
+     * so every reader sees the same object.
+     */
+    private static class LazyRecordList<T> extends AbstractList<T> {
+        private final AtomicReferenceArray<T> decoded;
+        private final IntFunction<T> decoder;
+
+        LazyRecordList(int size, IntFunction<T> decoder) {
+            this.decoded = new AtomicReferenceArray<>(size);
+            this.decoder = decoder;
+        }
+
+        @Override
+        public T get(int index) {
+            T value = decoded.get(index);
+            if (value == null) {
+                T fresh = decoder.apply(index);
+                value = decoded.compareAndExchange(index, null, fresh);
+                if (value == null) {
+                    value = fresh;
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return decoded.length();
+        }
+    }
+
+    /**
+     * Rebuild the snapshot from the JSON catalog
+     * Usage: CatalogSnapshot [snapshotPath]
+     */
+    public static void main(String[] args) throws IOException {
+        String snapshotPath = args.length > 0 ? args[0] : DEFAULT_PATH;
+
+        AirportService airportService = new AirportService();
+        airportService.loadAirportsFromJson(DataLoader.AIRPORTS_PATH);
+        CityService cityService = new CityService();
+        cityService.loadCitiesFromJson(DataLoader.CITIES_PATH);
+        HotelService hotelService = new HotelService();
+        hotelService.loadHotelsFromJson(DataLoader.HOTELS_PATH);
+        TouristSpotService touristSpotService = new TouristSpotService();
+        touristSpotService.loadTouristSpotsFromJson(DataLoader.TOURIST_SPOTS_PATH);
+
+        if (airportService.getAirports() == null) {
+            System.err.println("Airports failed to load; snapshot not written");
+            return;
+        }
+        write(snapshotPath, DataLoader.SNAPSHOT_SOURCES, airportService.getAirports(),
+                cityService.getCities(), hotelService.getHotels(), touristSpotService.getTouristSpots());
+        System.out.println("Catalog snapshot written to " + snapshotPath);
+    }
+}
@@ -1,6 +1,7 @@
 package com.dlightplanner.services;
 
 import com.dlightplanner.models.City;
+import com.dlightplanner.utils.IdIndex;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
@@ -9,14 +10,17 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class CityService {
 
     private List<City> cities;
+    private IdIndex<City> citiesById;
 
     public CityService() {
         cities = new ArrayList<>();
+        citiesById = new IdIndex<>(cities, City::getId);
     }
 
     /**
@@ -27,7 +31,8 @@ public class CityService {
         Gson gson = new Gson();
         try (FileReader reader = new FileReader(jsonPath)) {
             Type cityListType = new TypeToken<List<City>>() {}.getType();
-            cities = gson.fromJson(reader, cityListType);
+            List<City> loaded = gson.fromJson(reader, cityListType);
+            setCities(loaded != null ? loaded : new ArrayList<>());
             return cities;
         } catch (IOException e) {
             e.printStackTrace();
@@ -36,6 +41,14 @@ public class CityService {
         }
     }
 
+    /**
+     * Use an already-loaded city list (e.g. from the catalog snapshot)
+     */
+    public void setCities(List<City> loaded) {
+        cities = Collections.unmodifiableList(loaded);
+        citiesById = new IdIndex<>(cities, City::getId);
+    }
+
     /**
      * Get all loaded cities
      * @return list of City objects
@@ -50,11 +63,6 @@ public class CityService {
      * @return City object or null if not found
      */
     public City getCityById(int cityId) {
-        for (City city : cities) {
-            if (city.getId() == cityId) {
-                return city;
-            }
-        }
-        return null;
+        return citiesById.get(cityId);
     }
 }
@@ -0,0 +1,184 @@
+package com.dlightplanner.services;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Data Loader - loads the JSON catalog once per JVM and shares it across all pages.
+ * Airports, cities, hotels, tourist spots and local costs are parsed in parallel;
+ * pages ask for the shared services instead of re-reading resources/*.json.
+ */
+public class DataLoader {
+    public static final String AIRPORTS_PATH = "resources/airports.json";
+    public static final String CITIES_PATH = "resources/cities.json";
+    public static final String HOTELS_PATH = "resources/hotels.json";
+    public static final String TOURIST_SPOTS_PATH = "resources/tourist_spots.json";
+    public static final String LOCAL_COSTS_PATH = "resources/local_costs.json";
+
+    /** JSON files covered by the binary catalog snapshot, in snapshot order */
+    public static final String[] SNAPSHOT_SOURCES = {AIRPORTS_PATH, CITIES_PATH, HOTELS_PATH, TOURIST_SPOTS_PATH};
+
+    private static CompletableFuture<DataLoader> pending;
+
+    private final AirportService airportService;
+    private final CityService cityService;
+    private final HotelService hotelService;
+    private final TouristSpotService touristSpotService;
+    private final LocalCostService localCostService;
+    private final FlightService flightService;
+    private final TravelMatrix travelMatrix;
+    private final ItineraryPlanCache itineraryPlanCache;
+    private final ImagePathResolver imagePathResolver;
+
+    private DataLoader() {
+        airportService = new AirportService();
+        cityService = new CityService();
+        hotelService = new HotelService();
+        touristSpotService = new TouristSpotService();
+        localCostService = new LocalCostService();
+        flightService = new FlightService();
+        travelMatrix = new TravelMatrix();
+        itineraryPlanCache = new ItineraryPlanCache();
+        imagePathResolver = new ImagePathResolver();
+    }
+
+    /**
+     * Start loading the catalog in the background. Safe to call more than once;
+     * only the first call does any work. Call this from main() before building the first frame.
+     */
+    public static synchronized void preload() {
+        if (pending == null) {
+            pending = CompletableFuture.supplyAsync(DataLoader::load);
+        }
+    }
+
+    /**
+     * Get the shared catalog, waiting for the background load to finish if needed
+     */
+    public static DataLoader getInstance() {
+        preload();
+        return pending.join();
+    }
+
+    private static DataLoader load() {
+        long start = System.nanoTime();
+        DataLoader loader = new DataLoader();
+
+        CatalogSnapshot snapshot = CatalogSnapshot.openIfFresh(CatalogSnapshot.DEFAULT_PATH, SNAPSHOT_SOURCES);
+        if (snapshot != null) {
+            loader.airportService.setAirports(snapshot.getAirports());
+            loader.cityService.setCities(snapshot.getCities());
+            // Indexes come from the raw record fields; hotels and spots are decoded when first read
+            loader.hotelService.setHotels(snapshot.getHotels(), snapshot.getHotelIds());
+            loader.touristSpotService.setTouristSpots(snapshot.getTouristSpots(), snapshot.getTouristSpotIds(),
+                    snapshot.getTouristSpotDestinationCodes());
+            loader.localCostService.loadLocalCostsFromJson(LOCAL_COSTS_PATH);
+        } else {
+            loader.loadFromJson();
+            CompletableFuture.runAsync(loader::writeSnapshot);
+        }
+
+        loader.hotelService.setAirportService(loader.airportService);
+        loader.hotelService.setTouristSpotService(loader.touristSpotService);
+        loader.flightService.setAirportService(loader.airportService);
+        loader.travelMatrix.setTouristSpotService(loader.touristSpotService);
+        if (snapshot != null) {
+            CompletableFuture.runAsync(() -> loader.imagePathResolver.resolveAll(loader.cityService.getCities(),
+                    snapshot.getHotelIds(), snapshot.getHotelImagePaths(),
+                    snapshot.getTouristSpotIds(), snapshot.getTouristSpotImagePaths()));
+        } else {
+            CompletableFuture.runAsync(() -> loader.imagePathResolver.resolveAll(loader.cityService.getCities(),
+                    loader.hotelService.getHotels(), loader.touristSpotService.getTouristSpots()));
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Catalog loaded " + (snapshot != null ? "from snapshot" : "from JSON")
+                + " in " + elapsedMs + " ms");
+        return loader;
+    }
+
+    private void loadFromJson() {
+        ExecutorService executor = Executors.newFixedThreadPool(5, r -> {
+            Thread t = new Thread(r, "catalog-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> airportService.loadAirportsFromJson(AIRPORTS_PATH), executor),
+                    CompletableFuture.runAsync(() -> cityService.loadCitiesFromJson(CITIES_PATH), executor),
+                    CompletableFuture.runAsync(() -> hotelService.loadHotelsFromJson(HOTELS_PATH), executor),
+                    CompletableFuture.runAsync(() -> touristSpotService.loadTouristSpotsFromJson(TOURIST_SPOTS_PATH), executor),
+                    CompletableFuture.runAsync(() -> localCostService.loadLocalCostsFromJson(LOCAL_COSTS_PATH), executor)
+            ).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Save the freshly parsed catalog so the next launch can skip the JSON parse
+     */
+    private void writeSnapshot() {
+        if (airportService.getAirports() == null) {
+            return; // airports failed to load; don't cache a broken catalog
+        }
+        try {
+            CatalogSnapshot.write(CatalogSnapshot.DEFAULT_PATH, SNAPSHOT_SOURCES,
+                    airportService.getAirports(), cityService.getCities(),
+                    hotelService.getHotels(), touristSpotService.getTouristSpots());
+        } catch (IOException e) {
+            System.err.println("Failed to write catalog snapshot: " + e.getMessage());
+        }
+    }
+
+    public AirportService getAirportService() {
+        return airportService;
+    }
+
+    public CityService getCityService() {
+        return cityService;
+    }
+
+    public HotelService getHotelService() {
+        return hotelService;
+    }
+
+    public TouristSpotService getTouristSpotService() {
+        return touristSpotService;
+    }
+
+    public LocalCostService getLocalCostService() {
+        return localCostService;
+    }
+
+    /**
+     * Shared flight search, so its fare cache survives navigation between pages
+     */
+    public FlightService getFlightService() {
+        return flightService;
+    }
+
+    /**
+     * Shared spot-to-spot travel times, so each destination's table is built once
+     */
+    public TravelMatrix getTravelMatrix() {
+        return travelMatrix;
+    }
+
+    /**
+     * Shared itinerary plans, so reopening the itinerary or exporting it reuses the plan
+     */
+    public ItineraryPlanCache getItineraryPlanCache() {
+        return itineraryPlanCache;
+    }
+
+    /**
+     * Resolved image file of each hotel, tourist spot and city
+     */
+    public ImagePathResolver getImagePathResolver() {
+        return imagePathResolver;
+    }
+}
@@ -0,0 +1,265 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.TouristSpot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Day Scheduler - picks the order and start time of a day's visits with branch-and-bound.
+ *
+ * Constraints: each visit lies inside the spot's opening hours (SpotTimeWindows) and the
+ * day (9 AM - 9 PM), consecutive visits are separated by their travel time, and a one
+ * hour lunch is taken as soon as the clock passes noon (if it starts after 2 PM it counts
+ * as missed). The best schedule visits the most spots; ties are broken by a cost made of
+ * travel and waiting time, time spent in a spot's peak hours (weighted by crowd level),
+ * starts outside the spot's best visiting time, and a missed lunch.
+ *
+ * The search tries the spot that can start earliest first, so its first complete
+ * schedule is the greedy one; after that it only explores branches that could beat the
+ * best schedule found, and stops when the time budget runs out.
+ */
+public class DayScheduler {
+    public static final int DAY_START_SLOT = 9 * 60 / SpotTimeWindows.SLOT_MINUTES;
+    public static final int DAY_END_SLOT = 21 * 60 / SpotTimeWindows.SLOT_MINUTES;
+
+    private static final int LUNCH_EARLIEST_SLOT = 12 * 60 / SpotTimeWindows.SLOT_MINUTES;
+    private static final int LUNCH_LATEST_SLOT = 14 * 60 / SpotTimeWindows.SLOT_MINUTES;
+    private static final int LUNCH_SLOTS = 60 / SpotTimeWindows.SLOT_MINUTES;
+
+    // Costs, in minutes of travel
+    private static final double WAIT_WEIGHT = 0.5;
+    private static final double BEST_TIME_MISS_PENALTY = 45;
+    private static final double LUNCH_MISSED_PENALTY = 120;
+
+    private static final int NODES_PER_CLOCK_CHECK = 512;
+
+    /**
+     * Result of scheduling one day. Arrays are indexed like the input spot list.
+     */
+    public static class Result {
+        private final int[] startSlots;   // -1 if the spot could not be placed
+        private final int[] visitOrder;   // indices of placed spots, in visiting order
+        private final int lunchSlot;      // -1 if no lunch break was scheduled
+
+        Result(int[] startSlots, int[] visitOrder, int lunchSlot) {
+            this.startSlots = startSlots;
+            this.visitOrder = visitOrder;
+            this.lunchSlot = lunchSlot;
+        }
+
+        public int getStartSlot(int spotIndex) { return startSlots[spotIndex]; }
+        public int[] getVisitOrder() { return visitOrder.clone(); }
+        public int getLunchSlot() { return lunchSlot; }
+    }
+
+    /**
+     * @param lengthSlots visit length of each spot, in 15-minute slots
+     * @param travelSlots travelSlots[i][j] = travel time from spot i to spot j, in slots
+     * @param budgetMillis time limit for the search
+     */
+    public Result schedule(List<TouristSpot> spots, LocalDate date, int[] lengthSlots,
+                           int[][] travelSlots, long budgetMillis) {
+        Search search = new Search(spots, date, lengthSlots, travelSlots,
+                System.nanoTime() + budgetMillis * 1_000_000L);
+        search.run();
+        return search.result();
+    }
+
+    private static final class Search {
+        final int n;
+        final LocalDate date;
+        final int[] length;
+        final int[][] travel;
+        final SpotTimeWindows[] windows;
+        final double[] crowdWeight;
+        final int[] bestFrom;
+        final int[] bestTo;
+        final long deadline;
+
+        // Current path
+        final int[] pathSpot;
+        final int[] pathStart;
+        final boolean[] visited;
+        int lunchAt = -1;
+
+        // Best so far
+        int bestCount = -1;
+        double bestCost = Double.MAX_VALUE;
+        int[] bestSpots = new int[0];
+        int[] bestStarts = new int[0];
+        int bestLunch = -1;
+
+        long nodes;
+        boolean timedOut;
+
+        Search(List<TouristSpot> spots, LocalDate date, int[] length, int[][] travel, long deadline) {
+            this.n = spots.size();
+            this.date = date;
+            this.length = length;
+            this.travel = travel;
+            this.deadline = deadline;
+            windows = new SpotTimeWindows[n];
+            crowdWeight = new double[n];
+            bestFrom = new int[n];
+            bestTo = new int[n];
+            for (int i = 0; i < n; i++) {
+                TouristSpot spot = spots.get(i);
+                windows[i] = SpotTimeWindows.of(spot);
+                crowdWeight[i] = crowdWeight(spot.getCrowdLevel());
+                setBestWindow(i, spot.getBestVisitingTime());
+            }
+            pathSpot = new int[n];
+            pathStart = new int[n];
+            visited = new boolean[n];
+        }
+
+        void run() {
+            if (n > 0) {
+                search(0, -1, DAY_START_SLOT, false, 0);
+            }
+        }
+
+        /**
+         * @param depth visits placed so far
+         * @param last index of the last visited spot, or -1 at the hotel
+         * @param now first free slot after the last visit
+         * @param lunchDone lunch taken (or missed)
+         * @param cost cost of the path so far
+         */
+        private void search(int depth, int last, int now, boolean lunchDone, double cost) {
+            if (timedOut || (++nodes % NODES_PER_CLOCK_CHECK == 0 && System.nanoTime() > deadline)) {
+                timedOut = true;
+                return;
+            }
+
+            int savedLunch = lunchAt;
+            if (!lunchDone && now >= LUNCH_EARLIEST_SLOT) {
+                lunchDone = true;
+                if (now <= LUNCH_LATEST_SLOT) {
+                    lunchAt = now;
+                    now += LUNCH_SLOTS;
+                } else {
+                    cost += LUNCH_MISSED_PENALTY;
+                }
+            }
+
+            if (depth > bestCount || (depth == bestCount && cost < bestCost)) {
+                bestCount = depth;
+                bestCost = cost;
+                bestSpots = Arrays.copyOf(pathSpot, depth);
+                bestStarts = Arrays.copyOf(pathStart, depth);
+                bestLunch = lunchAt;
+            }
+
+            // Candidates with their earliest feasible start; also the optimistic bound
+            int[] candidates = new int[n];
+            int[] starts = new int[n];
+            int count = 0;
+            for (int j = 0; j < n; j++) {
+                if (visited[j]) {
+                    continue;
+                }
+                int arrival = last < 0 ? now : now + travel[last][j];
+                int start = windows[j].earliestStart(date, arrival, length[j], DAY_END_SLOT);
+                if (start >= 0) {
+                    candidates[count] = j;
+                    starts[count] = start;
+                    count++;
+                }
+            }
+            if (depth + count < bestCount || (depth + count == bestCount && cost >= bestCost && count > 0)) {
+                lunchAt = savedLunch;
+                return;
+            }
+
+            // Earliest start first, so the first full path is the greedy schedule
+            for (int a = 1; a < count; a++) {
+                int c = candidates[a], s = starts[a], b = a - 1;
+                while (b >= 0 && starts[b] > s) {
+                    candidates[b + 1] = candidates[b];
+                    starts[b + 1] = starts[b];
+                    b--;
+                }
+                candidates[b + 1] = c;
+                starts[b + 1] = s;
+            }
+
+            for (int a = 0; a < count && !timedOut; a++) {
+                int j = candidates[a];
+                int start = starts[a];
+                int end = start + length[j];
+                int arrival = last < 0 ? now : now + travel[last][j];
+
+                double step = (last < 0 ? 0 : travel[last][j] * SpotTimeWindows.SLOT_MINUTES)
+                        + (start - arrival) * SpotTimeWindows.SLOT_MINUTES * WAIT_WEIGHT
+                        + windows[j].peakSlots(start, end) * SpotTimeWindows.SLOT_MINUTES * crowdWeight[j]
+                        + (start >= bestFrom[j] && start < bestTo[j] ? 0 : BEST_TIME_MISS_PENALTY);
+
+                pathSpot[depth] = j;
+                pathStart[depth] = start;
+                visited[j] = true;
+                search(depth + 1, j, end, lunchDone, cost + step);
+                visited[j] = false;
+            }
+            lunchAt = savedLunch;
+        }
+
+        Result result() {
+            int[] startSlots = new int[n];
+            Arrays.fill(startSlots, -1);
+            for (int k = 0; k < bestSpots.length; k++) {
+                startSlots[bestSpots[k]] = bestStarts[k];
+            }
+            return new Result(startSlots, bestSpots, bestLunch);
+        }
+
+        private void setBestWindow(int i, String bestTime) {
+            // Same windows ItineraryGenerator uses when nudging start times
+            String best = bestTime != null ? bestTime.toLowerCase(Locale.ROOT) : "";
+            if (best.contains("morning")) {
+                bestFrom[i] = slot(9);
+                bestTo[i] = slot(12);
+            } else if (best.contains("evening")) {
+                bestFrom[i] = slot(16);
+                bestTo[i] = slot(19);
+            } else if (best.contains("afternoon")) {
+                bestFrom[i] = slot(12);
+                bestTo[i] = slot(16);
+            } else {
+                bestFrom[i] = 0;
+                bestTo[i] = SpotTimeWindows.SLOTS_PER_DAY;
+            }
+        }
+
+        private static int slot(int hour) {
+            return hour * 60 / SpotTimeWindows.SLOT_MINUTES;
+        }
+
+        private static double crowdWeight(String crowdLevel) {
+            if (crowdLevel == null) return 0.5;
+            switch (crowdLevel.toLowerCase(Locale.ROOT)) {
+                case "very high": return 1.5;
+                case "high": return 1.0;
+                case "low": return 0.25;
+                default: return 0.5;
+            }
+        }
+    }
+
+    /**
+     * Indices of the spots in a result that could not be placed, in input order
+     */
+    public static List<Integer> unplaced(Result result, int spotCount) {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < spotCount; i++) {
+            if (result.getStartSlot(i) < 0) {
+                missing.add(i);
+            }
+        }
+        return missing;
+    }
+}
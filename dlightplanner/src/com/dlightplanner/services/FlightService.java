@@ -1,18 +1,34 @@
 package com.dlightplanner.services;
 
+import com.dlightplanner.models.Airport;
 import com.dlightplanner.models.Flight;
+import com.dlightplanner.models.MultiCityTripRequest.FlightLeg;
+import com.dlightplanner.utils.GeoUtils;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class FlightService {
 
+    private static final int CACHE_SIZE = 512;
+    private static final int CALENDAR_CACHE_SIZE = 64;
+
+    /** Number of flights listed per route and date on the flight page */
+    public static final int FLIGHTS_PER_SEARCH = 10;
+
     private static final List<String> AIRLINES = List.of(
             "Air India",
             "IndiGo",
@@ -21,119 +37,294 @@ public class FlightService {
             "Air India Express"
     );
 
-    private static final Map<String, double[]> COORDINATES = new HashMap<>();
-
-    static {
-        COORDINATES.put("DEL", new double[]{28.5562, 77.1000});
-        COORDINATES.put("BOM", new double[]{19.0896, 72.8656});
-        COORDINATES.put("BLR", new double[]{13.1986, 77.7066});
-        COORDINATES.put("MAA", new double[]{12.9900, 80.1693});
-        COORDINATES.put("HYD", new double[]{17.2403, 78.4294});
-        COORDINATES.put("CCU", new double[]{22.6570, 88.4467});
-        COORDINATES.put("GOI", new double[]{15.3800, 73.8310});
-        COORDINATES.put("GOX", new double[]{15.5450, 73.8700});
-        COORDINATES.put("COK", new double[]{10.1520, 76.4019});
-        COORDINATES.put("TRV", new double[]{8.4821, 76.9200});
-        COORDINATES.put("PNQ", new double[]{18.5822, 73.9197});
-        COORDINATES.put("AMD", new double[]{23.0739, 72.6346});
-        COORDINATES.put("JAI", new double[]{26.8242, 75.8122});
-        COORDINATES.put("LKO", new double[]{26.7606, 80.8893});
-        COORDINATES.put("GAU", new double[]{26.1061, 91.5859});
-        COORDINATES.put("BBI", new double[]{20.2443, 85.8178});
-        COORDINATES.put("IDR", new double[]{22.7218, 75.8011});
-        COORDINATES.put("IXC", new double[]{30.6735, 76.7885});
-        COORDINATES.put("SXR", new double[]{33.9871, 74.7740});
-        COORDINATES.put("IXZ", new double[]{11.6410, 92.7297});
-        COORDINATES.put("VTZ", new double[]{17.7212, 83.2240});
-        COORDINATES.put("IXM", new double[]{9.8346, 78.0934});
-        COORDINATES.put("TRZ", new double[]{10.7654, 78.7080});
-        COORDINATES.put("IXE", new double[]{12.9613, 74.8901});
-        COORDINATES.put("UDR", new double[]{24.6177, 73.8963});
-        COORDINATES.put("IXJ", new double[]{32.6891, 74.8373});
-        COORDINATES.put("IXL", new double[]{34.1359, 77.5465});
-        COORDINATES.put("IXR", new double[]{23.3143, 85.3216});
-        COORDINATES.put("IXU", new double[]{19.8627, 75.3981});
-        COORDINATES.put("NAG", new double[]{21.0910, 79.0561});
-        COORDINATES.put("VNS", new double[]{25.4524, 82.8590});
-        COORDINATES.put("ATQ", new double[]{31.7096, 74.7973});
-        COORDINATES.put("IMF", new double[]{24.7645, 93.8967});
-    }
+    private static final double FALLBACK_DISTANCE_KM = 1200; // used when either airport is not in the catalog
+
+    private static final ExecutorService LEG_EXECUTOR = createLegExecutor();
+
+    private volatile DistanceTable distances = new DistanceTable(new HashMap<>(), new float[0], 0);
+
+    // Most recently used searches, keyed by origin|destination|date|count
+    private final Map<String, List<Flight>> searchCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Flight>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // Cheapest fare per day, keyed by origin|destination|year-month
+    private final Map<String, double[]> calendarCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, double[]> eldest) {
+            return size() > CALENDAR_CACHE_SIZE;
+        }
+    };
 
+    /**
+     * Search flights for a route and date. The fares are generated from a seed derived from
+     * (origin, destination, date), so the same search always returns the same inventory;
+     * results are kept in a bounded LRU cache and returned as an unmodifiable list.
+     */
     public List<Flight> searchFlights(String originCode,
                                       String destinationCode,
                                       LocalDate date,
                                       int count) {
+        if (count < 1) {
+            count = 1;
+        }
+        String key = originCode + "|" + destinationCode + "|" + date + "|" + count;
+        synchronized (searchCache) {
+            List<Flight> cached = searchCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<Flight> flights = Collections.unmodifiableList(generateFlights(originCode, destinationCode, date, count));
+        synchronized (searchCache) {
+            searchCache.put(key, flights);
+        }
+        return flights;
+    }
+
+    /**
+     * Search several legs at once without blocking. Each leg is searched on the shared leg
+     * executor; the map is in leg order and completes leg by leg, so callers can show the
+     * first results while the others are still running.
+     */
+    public Map<FlightLeg, CompletableFuture<List<Flight>>> searchLegs(List<FlightLeg> legs) {
+        Map<FlightLeg, CompletableFuture<List<Flight>>> results = new LinkedHashMap<>();
+        for (FlightLeg leg : legs) {
+            results.put(leg, CompletableFuture.supplyAsync(
+                    () -> searchFlights(leg.getFromCode(), leg.getToCode(), leg.getDate(), FLIGHTS_PER_SEARCH),
+                    LEG_EXECUTOR));
+        }
+        return results;
+    }
+
+    /**
+     * Warm the fare calendars the date strips of upcoming legs will show, in the
+     * background. Returns immediately.
+     */
+    public void prefetchLegs(List<FlightLeg> legs) {
+        for (FlightLeg leg : legs) {
+            if (leg.getDate() != null) {
+                LEG_EXECUTOR.execute(() -> fareCalendar(leg.getFromCode(), leg.getToCode(), YearMonth.from(leg.getDate())));
+            }
+        }
+    }
+
+    /**
+     * Virtual threads when the runtime has them (Java 21+), otherwise a small pool of daemon threads
+     */
+    private static ExecutorService createLegExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "flight-leg-search");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private static long seedFor(String originCode, String destinationCode, LocalDate date) {
+        long seed = 17;
+        seed = seed * 31 + (originCode != null ? originCode.hashCode() : 0);
+        seed = seed * 31 + (destinationCode != null ? destinationCode.hashCode() : 0);
+        seed = seed * 31 + (date != null ? date.toEpochDay() : 0);
+        return seed;
+    }
+
+    /**
+     * Cheapest fare for every day of a month, matching the cheapest flight that
+     * searchFlights(origin, destination, date, FLIGHTS_PER_SEARCH) would list for that day.
+     * Only the fares are computed; no Flight objects are built.
+     * @return array of length month.lengthOfMonth(); index 0 is the 1st of the month
+     */
+    public double[] fareCalendar(String originCode, String destinationCode, YearMonth month) {
+        String key = originCode + "|" + destinationCode + "|" + month;
+        synchronized (calendarCache) {
+            double[] cached = calendarCache.get(key);
+            if (cached != null) {
+                return cached.clone();
+            }
+        }
+
         double distanceKm = estimateDistance(originCode, destinationCode);
+        double[] cheapest = new double[month.lengthOfMonth()];
+        for (int day = 1; day <= cheapest.length; day++) {
+            LocalDate date = month.atDay(day);
+            Random random = new Random(seedFor(originCode, destinationCode, date));
+            double baseFare = baseFare(distanceKm, date);
+
+            double min = Double.MAX_VALUE;
+            for (int i = 0; i < FLIGHTS_PER_SEARCH; i++) {
+                min = Math.min(min, drawFlight(random, distanceKm, baseFare).saleFare());
+            }
+            cheapest[day - 1] = min;
+        }
+
+        synchronized (calendarCache) {
+            calendarCache.put(key, cheapest);
+        }
+        return cheapest.clone();
+    }
+
+    private static double baseFare(double distanceKm, LocalDate date) {
         double baseFare = distanceKm * 5.2; // ₹ per km baseline
         if (date != null && date.getDayOfWeek().getValue() >= 5) {
             baseFare *= 1.08; // weekend demand
         }
+        return baseFare;
+    }
+
+    /**
+     * Random values of one flight (fares already rounded to ₹10)
+     */
+    private record FlightDraw(int flightNumber, long offsetMinutes, double durationHours,
+                              double fare, double saleFare, double percentOff, boolean highlightDeal) {
+    }
+
+    /**
+     * Draw the next flight of a search from its seeded random. generateFlights and
+     * fareCalendar both go through here, so the fares they see stay the same.
+     */
+    private FlightDraw drawFlight(Random random, double distanceKm, double baseFare) {
+        int flightNumber = random.nextInt(700);
+        long offsetMinutes = -15 + random.nextInt(35);
+        double durationHours = clamp(distanceKm / 700.0 + (-0.2 + random.nextDouble() * 0.55), 1.0, 5.5);
+
+        double dynamicFactor = 0.92 + random.nextDouble() * 0.26;
+        double fare = Math.max(2500, baseFare * dynamicFactor);
+        double discount = 0.75 + random.nextDouble() * 0.13;
+        double saleFare = fare * discount;
+        double percentOff = Math.max(0, Math.round((1 - (saleFare / fare)) * 100));
+        boolean highlightDeal = percentOff > 12 && random.nextDouble() < 0.4;
+
+        return new FlightDraw(flightNumber, offsetMinutes, durationHours,
+                Math.round(fare / 10.0) * 10.0, Math.round(saleFare / 10.0) * 10.0, percentOff, highlightDeal);
+    }
+
+    private List<Flight> generateFlights(String originCode,
+                                         String destinationCode,
+                                         LocalDate date,
+                                         int count) {
+        Random random = new Random(seedFor(originCode, destinationCode, date));
+        double distanceKm = estimateDistance(originCode, destinationCode);
+        double baseFare = baseFare(distanceKm, date);
 
         List<Flight> flights = new ArrayList<>();
         LocalTime firstDeparture = LocalTime.of(5, 45);
-        if (count < 1) {
-            count = 1;
-        }
 
         for (int i = 0; i < count; i++) {
             String airline = AIRLINES.get(i % AIRLINES.size());
-            String flightNumber = generateFlightNumber(airline, i);
+            FlightDraw draw = drawFlight(random, distanceKm, baseFare);
 
-            long offsetMinutes = ThreadLocalRandom.current().nextLong(-15, 20);
-            LocalTime departure = firstDeparture.plusMinutes(i * 95L + offsetMinutes);
-            double durationHours = clamp(distanceKm / 700.0 + ThreadLocalRandom.current().nextDouble(-0.2, 0.35), 1.0, 5.5);
-            Duration duration = Duration.ofMinutes((long) (durationHours * 60));
+            LocalTime departure = firstDeparture.plusMinutes(i * 95L + draw.offsetMinutes());
+            Duration duration = Duration.ofMinutes((long) (draw.durationHours() * 60));
             LocalTime arrival = departure.plus(duration);
 
-            double dynamicFactor = ThreadLocalRandom.current().nextDouble(0.92, 1.18);
-            double fare = Math.max(2500, baseFare * dynamicFactor);
-            double discount = ThreadLocalRandom.current().nextDouble(0.75, 0.88);
-            double saleFare = fare * discount;
-            double percentOff = Math.max(0, Math.round((1 - (saleFare / fare)) * 100));
-            boolean highlightDeal = percentOff > 12 && ThreadLocalRandom.current().nextDouble() < 0.4;
-
             flights.add(new Flight(
                     airline,
-                    flightNumber,
+                    generateFlightNumber(airline, i, draw.flightNumber()),
                     originCode,
                     destinationCode,
                     departure,
                     arrival,
                     duration,
-                    Math.round(saleFare / 10.0) * 10.0,
-                    Math.round(fare / 10.0) * 10.0,
-                    highlightDeal ? percentOff : 0
+                    draw.saleFare(),
+                    draw.fare(),
+                    draw.highlightDeal() ? draw.percentOff() : 0
             ));
         }
 
         return flights;
     }
 
-    private double estimateDistance(String origin, String destination) {
-        double[] originCoord = COORDINATES.get(origin);
-        double[] destCoord = COORDINATES.get(destination);
+    /**
+     * Use the airport catalog for distance estimates. Precomputes the distance between
+     * every pair of airports that has coordinates, so a lookup is a single array read.
+     */
+    public void setAirportService(AirportService airportService) {
+        List<Airport> airports = airportService != null ? airportService.getAirports() : null;
+        if (airports == null) {
+            return;
+        }
 
-        if (originCoord == null || destCoord == null) {
-            return 1200; // fallback average distance
+        Map<String, Integer> ordinals = new HashMap<>();
+        List<Airport> located = new ArrayList<>();
+        for (Airport airport : airports) {
+            if (airport.getIata() == null || (airport.getLatitude() == 0 && airport.getLongitude() == 0)) {
+                continue;
+            }
+            String code = airport.getIata().toUpperCase(Locale.ROOT);
+            if (!ordinals.containsKey(code)) {
+                ordinals.put(code, located.size());
+                located.add(airport);
+            }
         }
 
-        double lat1 = Math.toRadians(originCoord[0]);
-        double lon1 = Math.toRadians(originCoord[1]);
-        double lat2 = Math.toRadians(destCoord[0]);
-        double lon2 = Math.toRadians(destCoord[1]);
+        int n = located.size();
+        float[] matrix = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            Airport a = located.get(i);
+            for (int j = i + 1; j < n; j++) {
+                Airport b = located.get(j);
+                float km = (float) GeoUtils.distanceKm(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+                matrix[i * n + j] = km;
+                matrix[j * n + i] = km;
+            }
+        }
 
-        double dLat = lat2 - lat1;
-        double dLon = lon2 - lon1;
+        distances = new DistanceTable(ordinals, matrix, n);
+        synchronized (searchCache) {
+            searchCache.clear();
+        }
+        synchronized (calendarCache) {
+            calendarCache.clear();
+        }
+    }
 
-        double a = Math.pow(Math.sin(dLat / 2), 2)
-                + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dLon / 2), 2);
+    private double estimateDistance(String origin, String destination) {
+        DistanceTable table = distances;
+        int from = table.ordinalOf(origin);
+        int to = table.ordinalOf(destination);
+        if (from < 0 || to < 0) {
+            return FALLBACK_DISTANCE_KM;
+        }
+        return table.matrix[from * table.size + to];
+    }
+
+    /**
+     * Airport ordinal by upper-case IATA code, and a dense size x size matrix of
+     * great-circle distances (km) indexed by ordinal
+     */
+    private static class DistanceTable {
+        final Map<String, Integer> ordinals;
+        final float[] matrix;
+        final int size;
 
-        double c = 2 * Math.asin(Math.sqrt(a));
-        double earthRadiusKm = 6371;
-        return earthRadiusKm * c;
+        DistanceTable(Map<String, Integer> ordinals, float[] matrix, int size) {
+            this.ordinals = ordinals;
+            this.matrix = matrix;
+            this.size = size;
+        }
+
+        int ordinalOf(String code) {
+            if (code == null) {
+                return -1;
+            }
+            Integer ordinal = ordinals.get(code);
+            if (ordinal == null) {
+                ordinal = ordinals.get(code.toUpperCase(Locale.ROOT));
+            }
+            return ordinal != null ? ordinal : -1;
+        }
     }
 
-    private String generateFlightNumber(String airline, int index) {
+    private String generateFlightNumber(String airline, int index, int numberDraw) {
         String prefix = switch (airline) {
             case "Air India" -> "AI";
             case "IndiGo" -> "6E";
@@ -142,7 +333,7 @@ public class FlightService {
             case "Air India Express" -> "IX";
             default -> "XY";
         };
-        return prefix + (200 + ThreadLocalRandom.current().nextInt(700) + index);
+        return prefix + (200 + numberDraw + index);
     }
 
     private double clamp(double value, double min, double max) {
@@ -0,0 +1,206 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Hotel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hotel Query Engine - answers combined star / price / distance / amenity filters over a
+ * fixed list of hotels without copying or re-scanning it.
+ *
+ * Each hotel gets an ordinal (its position in the list). Star ratings and amenities are
+ * stored as bitsets over ordinals; price and distance are stored as sorted arrays so a
+ * range becomes a binary search. A query intersects the bitsets and then walks the
+ * requested sort order, so results never need to be sorted.
+ */
+public class HotelQueryEngine {
+
+    public enum SortOrder {
+        LISTED,         // order of the list the engine was built from
+        PRICE_LOW_TO_HIGH,
+        PRICE_HIGH_TO_LOW,
+        DISTANCE
+    }
+
+    private final List<Hotel> hotels;
+    private final int size;
+
+    private final int[] byPrice;          // ordinals sorted by price
+    private final double[] sortedPrices;
+    private final int[] byDistance;       // ordinals sorted by distance from city center
+    private final double[] sortedDistances;
+
+    private final Map<Integer, BitSet> starBuckets = new HashMap<>();
+    private final Map<String, BitSet> amenityBits = new HashMap<>();
+    private final Set<String> amenityNames;
+
+    public HotelQueryEngine(List<Hotel> hotels) {
+        this(hotels, Hotel::getPricePerNight);
+    }
+
+    /**
+     * @param nightlyPrice price per night used by the price filter and sort orders, e.g. the
+     *                     date-aware rate of the stay shown on the hotel cards
+     */
+    public HotelQueryEngine(List<Hotel> hotels, ToDoubleFunction<Hotel> nightlyPrice) {
+        this.hotels = new ArrayList<>(hotels);
+        this.size = this.hotels.size();
+
+        double[] prices = new double[size];
+        for (int i = 0; i < size; i++) {
+            prices[i] = nightlyPrice.applyAsDouble(this.hotels.get(i));
+        }
+        byPrice = sortedOrdinals((a, b) -> Double.compare(prices[a], prices[b]));
+        sortedPrices = new double[size];
+        byDistance = sortedOrdinals((a, b) -> Double.compare(this.hotels.get(a).getDistanceFromCityCenter(),
+                this.hotels.get(b).getDistanceFromCityCenter()));
+        sortedDistances = new double[size];
+        for (int i = 0; i < size; i++) {
+            sortedPrices[i] = prices[byPrice[i]];
+            sortedDistances[i] = this.hotels.get(byDistance[i]).getDistanceFromCityCenter();
+        }
+
+        Set<String> names = new TreeSet<>();
+        for (int i = 0; i < size; i++) {
+            Hotel hotel = this.hotels.get(i);
+            starBuckets.computeIfAbsent(hotel.getStarRating(), k -> new BitSet(size)).set(i);
+            if (hotel.getAmenities() != null) {
+                for (String amenity : hotel.getAmenities()) {
+                    amenityBits.computeIfAbsent(amenity, k -> new BitSet(size)).set(i);
+                    names.add(amenity);
+                }
+            }
+        }
+        amenityNames = Collections.unmodifiableSet(names);
+    }
+
+    private int[] sortedOrdinals(Comparator<Integer> comparator) {
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, comparator);
+        int[] ordinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            ordinals[i] = boxed[i];
+        }
+        return ordinals;
+    }
+
+    /**
+     * All amenities offered by at least one hotel, in alphabetical order
+     */
+    public Set<String> getAmenities() {
+        return amenityNames;
+    }
+
+    /**
+     * Find hotels matching every given filter. Null (or empty) filters are ignored.
+     * @param starRating exact star rating
+     * @param minPrice lowest price per night, inclusive
+     * @param maxPrice highest price per night, inclusive
+     * @param maxDistance furthest distance from the city center (km), inclusive
+     * @param amenities amenities every result must offer
+     * @param order order of the returned list
+     */
+    public List<Hotel> query(Integer starRating, Double minPrice, Double maxPrice,
+                             Double maxDistance, Set<String> amenities, SortOrder order) {
+        BitSet matches = new BitSet(size);
+        matches.set(0, size);
+
+        if (starRating != null) {
+            BitSet stars = starBuckets.get(starRating);
+            if (stars == null) {
+                return new ArrayList<>();
+            }
+            matches.and(stars);
+        }
+
+        if (minPrice != null || maxPrice != null) {
+            matches.and(rangeBits(byPrice, sortedPrices,
+                    minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY));
+        }
+
+        if (maxDistance != null) {
+            matches.and(rangeBits(byDistance, sortedDistances, Double.NEGATIVE_INFINITY, maxDistance));
+        }
+
+        if (amenities != null) {
+            for (String amenity : amenities) {
+                BitSet offering = amenityBits.get(amenity);
+                if (offering == null) {
+                    return new ArrayList<>();
+                }
+                matches.and(offering);
+            }
+        }
+
+        List<Hotel> results = new ArrayList<>(matches.cardinality());
+        switch (order != null ? order : SortOrder.LISTED) {
+            case PRICE_LOW_TO_HIGH:
+                for (int ordinal : byPrice) {
+                    if (matches.get(ordinal)) results.add(hotels.get(ordinal));
+                }
+                break;
+            case PRICE_HIGH_TO_LOW:
+                for (int i = size - 1; i >= 0; i--) {
+                    if (matches.get(byPrice[i])) results.add(hotels.get(byPrice[i]));
+                }
+                break;
+            case DISTANCE:
+                for (int ordinal : byDistance) {
+                    if (matches.get(ordinal)) results.add(hotels.get(ordinal));
+                }
+                break;
+            default:
+                for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                    results.add(hotels.get(i));
+                }
+        }
+        return results;
+    }
+
+    /**
+     * Bitset of the ordinals whose sorted value lies in [min, max]
+     */
+    private BitSet rangeBits(int[] ordinals, double[] sortedValues, double min, double max) {
+        BitSet bits = new BitSet(size);
+        int from = lowerBound(sortedValues, min);
+        int to = upperBound(sortedValues, max);
+        for (int i = from; i < to; i++) {
+            bits.set(ordinals[i]);
+        }
+        return bits;
+    }
+
+    // First index whose value is >= key
+    private static int lowerBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // First index whose value is > key
+    private static int upperBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,179 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Hotel;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hotel Rate Calendar - nightly rates and room availability for a rolling window of dates.
+ *
+ * A night's rate is the hotel's base rate times a seasonal (per-month) multiplier and a
+ * weekend uplift for Friday and Saturday nights. The multipliers are kept as a prefix-sum
+ * array, so pricing any stay is two array reads. Rooms left per night are generated once
+ * per hotel (seeded by hotel and destination) and stored as a short[] over the window.
+ * Nights past the window are priced on the fly and treated as available.
+ */
+public class HotelRateCalendar {
+    public static final int HORIZON_DAYS = 400;
+
+    // January .. December
+    private static final double[] MONTH_MULTIPLIER = {
+            1.25, 1.05, 1.05, 0.95, 0.95, 0.90, 0.85, 0.85, 0.90, 1.10, 1.15, 1.30
+    };
+    private static final double WEEKEND_UPLIFT = 1.15;
+
+    private final LocalDate start;
+    private final double[] multiplierPrefix; // [i] = sum of multipliers for the first i nights
+    private final Map<String, short[]> roomsLeft = new ConcurrentHashMap<>();
+
+    public HotelRateCalendar() {
+        this(LocalDate.now());
+    }
+
+    public HotelRateCalendar(LocalDate start) {
+        this.start = start;
+        multiplierPrefix = new double[HORIZON_DAYS + 1];
+        for (int i = 0; i < HORIZON_DAYS; i++) {
+            multiplierPrefix[i + 1] = multiplierPrefix[i] + nightlyMultiplier(start.plusDays(i));
+        }
+    }
+
+    /**
+     * Price multiplier for the night starting on the given date
+     */
+    public static double nightlyMultiplier(LocalDate night) {
+        double multiplier = MONTH_MULTIPLIER[night.getMonthValue() - 1];
+        DayOfWeek day = night.getDayOfWeek();
+        if (day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY) {
+            multiplier *= WEEKEND_UPLIFT;
+        }
+        return multiplier;
+    }
+
+    /**
+     * Quote a stay for one room with the default (2 bed) configuration
+     */
+    public StayQuote quote(Hotel hotel, LocalDate checkIn, LocalDate checkOut) {
+        return quote(hotel, checkIn, checkOut, 1, 2);
+    }
+
+    /**
+     * Quote a stay. At least one night is always charged, matching the booking pages.
+     * @param rooms rooms booked each night
+     * @param beds beds per room (see Hotel.getPriceForBeds)
+     */
+    public StayQuote quote(Hotel hotel, LocalDate checkIn, LocalDate checkOut, int rooms, int beds) {
+        int nights = nights(checkIn, checkOut);
+        double total = hotel.getPriceForBeds(beds) * multiplierSum(checkIn, nights) * rooms;
+
+        List<LocalDate> soldOut = new ArrayList<>();
+        short[] left = roomsLeft(hotel);
+        int first = (int) ChronoUnit.DAYS.between(start, checkIn);
+        for (int n = 0; n < nights; n++) {
+            int day = first + n;
+            if (day >= 0 && day < HORIZON_DAYS && left[day] < rooms) {
+                soldOut.add(checkIn.plusDays(n));
+            }
+        }
+        return new StayQuote(nights, rooms, total, Collections.unmodifiableList(soldOut));
+    }
+
+    /**
+     * True if the hotel has the given number of rooms free on every night of the stay
+     */
+    public boolean isAvailable(Hotel hotel, LocalDate checkIn, LocalDate checkOut, int rooms) {
+        int nights = nights(checkIn, checkOut);
+        short[] left = roomsLeft(hotel);
+        int first = (int) ChronoUnit.DAYS.between(start, checkIn);
+        int from = Math.max(0, first);
+        int to = Math.min(HORIZON_DAYS, first + nights);
+        for (int day = from; day < to; day++) {
+            if (left[day] < rooms) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nights(LocalDate checkIn, LocalDate checkOut) {
+        long nights = checkOut != null ? ChronoUnit.DAYS.between(checkIn, checkOut) : 1;
+        return (int) Math.max(1, nights);
+    }
+
+    /**
+     * Sum of nightly multipliers for nights checkIn .. checkIn + nights - 1
+     */
+    private double multiplierSum(LocalDate checkIn, int nights) {
+        int first = (int) ChronoUnit.DAYS.between(start, checkIn);
+        int from = Math.max(0, Math.min(HORIZON_DAYS, first));
+        int to = Math.max(0, Math.min(HORIZON_DAYS, first + nights));
+        double sum = multiplierPrefix[to] - multiplierPrefix[from];
+        // Nights outside the window
+        for (int n = 0; n < nights; n++) {
+            int day = first + n;
+            if (day < 0 || day >= HORIZON_DAYS) {
+                sum += nightlyMultiplier(checkIn.plusDays(n));
+            }
+        }
+        return sum;
+    }
+
+    private short[] roomsLeft(Hotel hotel) {
+        return roomsLeft.computeIfAbsent(hotel.getDestinationCode() + "|" + hotel.getId(),
+                key -> generateInventory(key, hotel.getStarRating()));
+    }
+
+    /**
+     * Rooms left per night: busier (and more often sold out) in peak months and on weekends
+     */
+    private short[] generateInventory(String key, int starRating) {
+        Random random = new Random(key.hashCode());
+        int capacity = 6 + Math.max(1, starRating) * 4;
+        short[] left = new short[HORIZON_DAYS];
+        for (int i = 0; i < HORIZON_DAYS; i++) {
+            double demand = nightlyMultiplier(start.plusDays(i));
+            double occupancy = 0.35 + 0.4 * (demand - 0.85) + random.nextDouble() * 0.45;
+            int booked = (int) Math.round(capacity * Math.min(1.0, occupancy));
+            left[i] = (short) Math.max(0, capacity - booked);
+        }
+        return left;
+    }
+
+    /**
+     * Price and availability of one stay
+     */
+    public static class StayQuote {
+        private final int nights;
+        private final int rooms;
+        private final double totalPrice;
+        private final List<LocalDate> soldOutNights;
+
+        public StayQuote(int nights, int rooms, double totalPrice, List<LocalDate> soldOutNights) {
+            this.nights = nights;
+            this.rooms = rooms;
+            this.totalPrice = totalPrice;
+            this.soldOutNights = soldOutNights;
+        }
+
+        public int getNights() { return nights; }
+        public int getRooms() { return rooms; }
+        public double getTotalPrice() { return totalPrice; }
+        public List<LocalDate> getSoldOutNights() { return soldOutNights; }
+        public boolean isAvailable() { return soldOutNights.isEmpty(); }
+
+        /**
+         * Average price of one room for one night over the stay
+         */
+        public double getAverageNightlyRate() {
+            return totalPrice / nights / rooms;
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package com.dlightplanner.services;
 
+import com.dlightplanner.models.Airport;
 import com.dlightplanner.models.Hotel;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.dlightplanner.models.TouristSpot;
+import com.dlightplanner.utils.IdIndex;
 
-import java.io.FileReader;
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Hotel Service - loads hotels from JSON file and randomly assigns them to destinations
+ * Hotel Service - loads hotels from JSON file and assigns them to destinations.
+ * Each destination gets a pseudo-random but stable selection (seeded by its code),
+ * built once and then shared.
  */
 public class HotelService {
     private List<Hotel> hotels;
+    private IdIndex<Hotel> hotelsById;
     private AirportService airportService;
-    private Random random;
+    private TouristSpotService touristSpotService;
+    private final Map<String, List<Hotel>> hotelsByDestination = new ConcurrentHashMap<>();
+    private final HotelRateCalendar rateCalendar = new HotelRateCalendar();
+
+    private static final double KM_PER_DEGREE = 111.32;
 
     private static final Map<String, List<String>> CITY_LOCATIONS = new HashMap<>();
     
@@ -49,11 +55,20 @@ public class HotelService {
 
     public HotelService() {
         hotels = new ArrayList<>();
-        random = new Random();
+        hotelsById = new IdIndex<>(hotels, Hotel::getId);
     }
     
     public void setAirportService(AirportService airportService) {
         this.airportService = airportService;
+        hotelsByDestination.clear(); // city names (and so hotel names/locations) may change
+    }
+
+    /**
+     * Tourist spots are used to find each destination's city center when placing hotels
+     */
+    public void setTouristSpotService(TouristSpotService touristSpotService) {
+        this.touristSpotService = touristSpotService;
+        hotelsByDestination.clear();
     }
 
     /**
@@ -62,13 +77,9 @@ public class HotelService {
      * @return List of hotels
      */
     public List<Hotel> loadHotelsFromJson(String jsonPath) {
-        Gson gson = new Gson();
-        try (FileReader reader = new FileReader(jsonPath)) {
-            Type hotelListType = new TypeToken<List<Hotel>>() {}.getType();
-            hotels = gson.fromJson(reader, hotelListType);
-            if (hotels == null) {
-                hotels = new ArrayList<>();
-            }
+        try {
+            List<Hotel> loaded = new JsonStreamLoader().readAll(jsonPath, Hotel.class);
+            setHotels(loaded);
             return hotels;
         } catch (IOException e) {
             e.printStackTrace();
@@ -76,6 +87,28 @@ public class HotelService {
         }
     }
 
+    /**
+     * Use an already-loaded hotel list
+     */
+    public void setHotels(List<Hotel> loaded) {
+        int[] ids = new int[loaded.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = loaded.get(i).getId();
+        }
+        setHotels(loaded, ids);
+    }
+
+    /**
+     * Use a hotel list whose ids are already known (e.g. read from the catalog snapshot
+     * records), so indexing does not read the hotels themselves
+     * @param ids id of each hotel, in list order
+     */
+    public void setHotels(List<Hotel> loaded, int[] ids) {
+        hotels = Collections.unmodifiableList(loaded);
+        hotelsById = new IdIndex<>(hotels, ids);
+        hotelsByDestination.clear();
+    }
+
     public List<Hotel> getHotels() {
         return hotels;
     }
@@ -87,17 +120,13 @@ public class HotelService {
         if (airportService == null) {
             return destinationCode;
         }
-        return airportService.getAirports().stream()
-                .filter(airport -> airport.getIata().equalsIgnoreCase(destinationCode))
-                .map(airport -> airport.getCity())
-                .findFirst()
-                .orElse(destinationCode);
+        return airportService.getCityName(destinationCode);
     }
 
     /**
      * Customize hotel for a specific city
      */
-    private Hotel customizeHotelForCity(Hotel hotel, String cityName, String destinationCode) {
+    private Hotel customizeHotelForCity(Hotel hotel, String cityName, String destinationCode, double[] cityCenter, Random random) {
         Hotel customized = new Hotel();
         customized.setId(hotel.getId());
 
@@ -121,30 +150,116 @@ public class HotelService {
         customized.setImagePath(hotel.getImagePath());
         customized.setPricePerNight(hotel.getPricePerNight());
         customized.setDistanceFromCityCenter(hotel.getDistanceFromCityCenter());
-        customized.setAmenities(new ArrayList<>(hotel.getAmenities()));
+        customized.setAmenities(hotel.getAmenities()); // shared with the pool hotel; never modified
         customized.setDestinationCode(destinationCode); // Set to actual destination code
+        if (cityCenter != null) {
+            placeNearCenter(customized, cityCenter);
+        }
         
         return customized;
     }
 
+    /**
+     * Approximate city center: the tourist spot listed closest to the center,
+     * or the airport when the destination has no spots
+     * @return {latitude, longitude}, or null if unknown
+     */
+    private double[] findCityCenter(String destinationCode) {
+        if (destinationCode == null) {
+            return null;
+        }
+        if (touristSpotService != null) {
+            TouristSpot central = null;
+            for (TouristSpot spot : touristSpotService.getTouristSpotsByDestination(destinationCode)) {
+                if (spot.getLatitude() == 0 && spot.getLongitude() == 0) {
+                    continue;
+                }
+                if (central == null || spot.getDistanceFromCityCenter() < central.getDistanceFromCityCenter()) {
+                    central = spot;
+                }
+            }
+            if (central != null) {
+                return new double[]{central.getLatitude(), central.getLongitude()};
+            }
+        }
+        if (airportService != null) {
+            Airport airport = airportService.getAirportByIata(destinationCode);
+            if (airport != null && (airport.getLatitude() != 0 || airport.getLongitude() != 0)) {
+                return new double[]{airport.getLatitude(), airport.getLongitude()};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Give the hotel coordinates its listed distance away from the city center,
+     * in a direction that is fixed per hotel and destination
+     */
+    private void placeNearCenter(Hotel hotel, double[] cityCenter) {
+        double bearing = new Random(Objects.hash(hotel.getDestinationCode(), hotel.getId())).nextDouble() * 2 * Math.PI;
+        double km = hotel.getDistanceFromCityCenter();
+        double latitude = cityCenter[0] + (km / KM_PER_DEGREE) * Math.cos(bearing);
+        double longitude = cityCenter[1]
+                + (km / (KM_PER_DEGREE * Math.cos(Math.toRadians(cityCenter[0])))) * Math.sin(bearing);
+        hotel.setLatitude(latitude);
+        hotel.setLongitude(longitude);
+    }
+
     /**
      * Get hotels filtered by destination code (airport code)
-     * Randomly selects 10-15 hotels from the pool and customizes them for the destination
+     * Selects 10-15 hotels from the pool and customizes them for the destination.
+     * The selection is the same on every call; the returned list is shared and unmodifiable.
      */
     public List<Hotel> getHotelsByDestination(String destinationCode) {
         return getHotelsByDestination(destinationCode, null, null);
     }
     
     /**
-     * Get hotels filtered by destination code with specific dates (dates ignored for JSON)
-     * Randomly selects 10-15 hotels from the pool and customizes them for the destination
+     * Get hotels filtered by destination code with specific dates.
+     * Without dates this is the destination's full (shared, unmodifiable) selection;
+     * with dates, hotels that are sold out on any night of the stay are left out.
      */
     public List<Hotel> getHotelsByDestination(String destinationCode, LocalDate checkIn, LocalDate checkOut) {
         if (hotels == null || hotels.isEmpty()) {
-            return new ArrayList<>();
+            return Collections.emptyList();
+        }
+        List<Hotel> assigned = destinationCode == null
+                ? assignHotels(null)
+                : hotelsByDestination.computeIfAbsent(destinationCode, this::assignHotels);
+        if (checkIn == null) {
+            return assigned;
+        }
+
+        List<Hotel> available = new ArrayList<>(assigned.size());
+        for (Hotel hotel : assigned) {
+            if (rateCalendar.isAvailable(hotel, checkIn, checkOut, 1)) {
+                available.add(hotel);
+            }
         }
+        return available.size() == assigned.size() ? assigned : Collections.unmodifiableList(available);
+    }
 
+    /**
+     * Date-aware price of a stay for one room with the default bed configuration
+     */
+    public HotelRateCalendar.StayQuote quoteStay(Hotel hotel, LocalDate checkIn, LocalDate checkOut) {
+        return rateCalendar.quote(hotel, checkIn, checkOut);
+    }
+
+    /**
+     * Date-aware price of a stay
+     */
+    public HotelRateCalendar.StayQuote quoteStay(Hotel hotel, LocalDate checkIn, LocalDate checkOut, int rooms, int beds) {
+        return rateCalendar.quote(hotel, checkIn, checkOut, rooms, beds);
+    }
+
+    /**
+     * Pick and customize the hotels for one destination, seeded by its code
+     */
+    private List<Hotel> assignHotels(String destinationCode) {
+        Random random = new Random(destinationCode != null ? destinationCode.hashCode() : 0);
         String cityName = getCityNameFromCode(destinationCode);
+        double[] cityCenter = findCityCenter(destinationCode);
 
         int numHotels = 10 + random.nextInt(6); // 10 to 15 hotels
         numHotels = Math.min(numHotels, hotels.size());
@@ -152,24 +267,21 @@ public class HotelService {
         List<Hotel> shuffledHotels = new ArrayList<>(hotels);
         Collections.shuffle(shuffledHotels, random);
 
-        List<Hotel> selectedHotels = shuffledHotels.stream()
-                .limit(numHotels)
-                .map(hotel -> customizeHotelForCity(hotel, cityName, destinationCode))
-                .collect(Collectors.toList());
+        List<Hotel> selectedHotels = new ArrayList<>(numHotels);
+        for (int i = 0; i < numHotels; i++) {
+            selectedHotels.add(customizeHotelForCity(shuffledHotels.get(i), cityName, destinationCode, cityCenter, random));
+        }
 
         selectedHotels.sort((a, b) -> Integer.compare(b.getStarRating(), a.getStarRating()));
         
-        return selectedHotels;
+        return Collections.unmodifiableList(selectedHotels);
     }
 
     /**
      * Get hotel by ID
      */
     public Hotel getHotelById(int id) {
-        return hotels.stream()
-                .filter(hotel -> hotel.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return hotelsById.get(id);
     }
 }
 
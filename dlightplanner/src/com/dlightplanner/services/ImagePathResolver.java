@@ -0,0 +1,197 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.City;
+import com.dlightplanner.models.Hotel;
+import com.dlightplanner.models.TouristSpot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Image Path Resolver - maps the imagePath of hotels, tourist spots and cities to the
+ * file that actually exists under resources/images, so pages load each image exactly once.
+ *
+ * The image folder is scanned once, on first use, into an index (existing files, and base
+ * name without extension -> file). A path resolves to the file itself if it exists, else
+ * to the same base name with another image extension; hotels additionally fall back to
+ * the digits of the file name and then to the hotel id in the same folder (e.g.
+ * hotels/12.jpg).
+ * resolveAll() resolves the whole catalog and logs what could not be found; DataLoader runs
+ * it in the background after loading the catalog.
+ */
+public class ImagePathResolver {
+    public static final String IMAGES_DIR = "resources/images";
+
+    private static final String[] EXTENSIONS = {".jpg", ".JPG", ".jpeg", ".JPEG", ".png", ".PNG"};
+    private static final String UNRESOLVED = "";
+
+    private final String root;
+    private final Set<String> files = new HashSet<>();
+    private final Map<String, String> byBaseName = new HashMap<>();
+    private final Map<String, String> resolved = new ConcurrentHashMap<>();
+    private volatile boolean indexed;
+
+    public ImagePathResolver() {
+        this(IMAGES_DIR);
+    }
+
+    public ImagePathResolver(String root) {
+        this.root = root;
+    }
+
+    private synchronized void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        Path rootPath = Paths.get(root);
+        if (!Files.isDirectory(rootPath)) {
+            System.err.println("Image folder not found: " + root);
+            indexed = true;
+            return;
+        }
+        List<String> found = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            paths.filter(Files::isRegularFile)
+                    .forEach(p -> found.add(rootPath.relativize(p).toString().replace(File.separatorChar, '/')));
+        } catch (IOException e) {
+            System.err.println("Error scanning " + root + ": " + e.getMessage());
+        }
+        files.addAll(found);
+        // Prefer extensions in EXTENSIONS order when one base name has several files
+        for (String extension : EXTENSIONS) {
+            for (String file : found) {
+                if (file.endsWith(extension)) {
+                    byBaseName.putIfAbsent(file.substring(0, file.length() - extension.length()), file);
+                }
+            }
+        }
+        indexed = true; // publish only the complete index
+    }
+
+    /**
+     * Full path of the hotel's image, or null if no image file matches
+     */
+    public String resolve(Hotel hotel) {
+        return resolve(hotel.getImagePath(), hotel.getId(), true);
+    }
+
+    public String resolve(TouristSpot spot) {
+        return resolve(spot.getImagePath(), 0, false);
+    }
+
+    public String resolve(City city) {
+        return resolve(city.getImagePath(), 0, false);
+    }
+
+    private String resolve(String imagePath, int hotelId, boolean hotel) {
+        if (imagePath == null || imagePath.isEmpty()) {
+            return null;
+        }
+        String key = hotel ? hotelId + ":" + imagePath : imagePath;
+        String path = resolved.get(key);
+        if (path == null) {
+            if (!indexed) {
+                ensureIndexed();
+            }
+            String file = find(imagePath, hotelId, hotel);
+            path = file != null ? root + "/" + file : UNRESOLVED;
+            resolved.put(key, path);
+        }
+        return path.isEmpty() ? null : path;
+    }
+
+    /**
+     * Relative path of the matching file, looked up in the index only
+     */
+    private String find(String imagePath, int hotelId, boolean hotel) {
+        if (files.contains(imagePath)) {
+            return imagePath;
+        }
+        int dot = imagePath.lastIndexOf('.');
+        String file = byBaseName.get(dot > imagePath.lastIndexOf('/') ? imagePath.substring(0, dot) : imagePath);
+        if (file != null || !hotel) {
+            return file;
+        }
+
+        String[] parts = imagePath.split("/");
+        if (parts.length == 2) {
+            String folder = parts[0];
+            String number = parts[1].replaceAll("[^0-9]", "");
+            if (!number.isEmpty()) {
+                file = byBaseName.get(folder + "/" + number);
+            }
+            if (file == null) {
+                file = byBaseName.get(folder + "/" + hotelId);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Resolve every catalog image once and log the entries without a file
+     */
+    public void resolveAll(List<City> cities, List<Hotel> hotels, List<TouristSpot> spots) {
+        int[] hotelIds = new int[hotels != null ? hotels.size() : 0];
+        String[] hotelImagePaths = new String[hotelIds.length];
+        for (int i = 0; i < hotelIds.length; i++) {
+            hotelIds[i] = hotels.get(i).getId();
+            hotelImagePaths[i] = hotels.get(i).getImagePath();
+        }
+        int[] spotIds = new int[spots != null ? spots.size() : 0];
+        String[] spotImagePaths = new String[spotIds.length];
+        for (int i = 0; i < spotIds.length; i++) {
+            spotIds[i] = spots.get(i).getId();
+            spotImagePaths[i] = spots.get(i).getImagePath();
+        }
+        resolveAll(cities, hotelIds, hotelImagePaths, spotIds, spotImagePaths);
+    }
+
+    /**
+     * Same, from the ids and image paths of the hotels and spots (e.g. read from the
+     * catalog snapshot records), without reading the hotels and spots themselves
+     */
+    public void resolveAll(List<City> cities, int[] hotelIds, String[] hotelImagePaths,
+                           int[] spotIds, String[] spotImagePaths) {
+        long start = System.nanoTime();
+        ensureIndexed();
+        List<String> missing = new ArrayList<>();
+        int count = 0;
+        if (cities != null) {
+            for (City city : cities) {
+                count++;
+                if (resolve(city) == null) {
+                    missing.add("city " + city.getName() + " (" + city.getImagePath() + ")");
+                }
+            }
+        }
+        for (int i = 0; i < hotelIds.length; i++) {
+            count++;
+            if (resolve(hotelImagePaths[i], hotelIds[i], true) == null) {
+                missing.add("hotel " + hotelIds[i] + " (" + hotelImagePaths[i] + ")");
+            }
+        }
+        for (int i = 0; i < spotIds.length; i++) {
+            count++;
+            if (resolve(spotImagePaths[i], 0, false) == null) {
+                missing.add("tourist spot " + spotIds[i] + " (" + spotImagePaths[i] + ")");
+            }
+        }
+
+        System.out.println("Image paths: " + (count - missing.size()) + " of " + count + " resolved against "
+                + files.size() + " files in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        for (String entry : missing) {
+            System.out.println("  No image for " + entry);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.dlightplanner.services;
 
 import com.dlightplanner.models.Hotel;
 import com.dlightplanner.models.TouristSpot;
+import com.dlightplanner.utils.GeoUtils;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.DayOfWeek;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Smart Itinerary Generator Service
@@ -21,6 +24,27 @@ public class ItineraryGenerator {
     private static final int LUNCH_BREAK_HOURS = 1; // Lunch break duration
     private static final double MIN_SPOT_DURATION_HOURS = 1.0; // Minimum duration per spot (reduced for maximization)
     private static final double REDUCED_SPOT_DURATION_HOURS = 1.5; // Reduced duration for fitting more spots (1-1.5 hours)
+    private static final long SCHEDULE_BUDGET_MILLIS = 50; // Search time limit per day (see DayScheduler)
+    
+    private final RouteOptimizer routeOptimizer = new RouteOptimizer();
+    private final SpotClusterer spotClusterer = new SpotClusterer();
+    private final DayScheduler dayScheduler = new DayScheduler();
+    private final TravelMatrix travelMatrix;
+    private final TouristSpotService touristSpotService;
+    private final WeatherService weatherService = new WeatherService();
+
+    public ItineraryGenerator() {
+        this(DataLoader.getInstance());
+    }
+
+    private ItineraryGenerator(DataLoader catalog) {
+        this(catalog.getTravelMatrix(), catalog.getTouristSpotService());
+    }
+
+    public ItineraryGenerator(TravelMatrix travelMatrix, TouristSpotService touristSpotService) {
+        this.travelMatrix = travelMatrix;
+        this.touristSpotService = touristSpotService;
+    }
     
     /**
      * Calculate optimal number of days needed based on selected spots
@@ -66,100 +90,197 @@ public class ItineraryGenerator {
     
     /**
      * Group spots by proximity and distribute across days
-     * MAXIMIZES spots shown while ensuring ALL selected spots are included
-     * Ensures at least 4 spots per day with 1-1.5 hour durations
+     * Includes ALL selected spots; each day gets a compact geographic cluster with a
+     * similar number of visiting hours (see SpotClusterer).
+     * Ensures at least 4 spots per day when there are enough spots
      */
     public Map<LocalDate, List<TouristSpot>> groupSpotsByProximity(
             List<TouristSpot> spots, Hotel hotel, LocalDate startDate, int numberOfDays) {
         
         Map<LocalDate, List<TouristSpot>> dayWiseSpots = new LinkedHashMap<>();
-
-        for (int i = 0; i < numberOfDays; i++) {
-            dayWiseSpots.put(startDate.plusDays(i), new ArrayList<>());
-        }
         
         if (spots == null || spots.isEmpty()) {
+            for (int i = 0; i < numberOfDays; i++) {
+                dayWiseSpots.put(startDate.plusDays(i), new ArrayList<>());
+            }
             return dayWiseSpots;
         }
         
         int totalSpots = spots.size();
+        int minSpotsPerDay = totalSpots >= 4 * numberOfDays ? 4 : 0;
+        List<List<TouristSpot>> clusters = spotClusterer.cluster(spots, hotel, numberOfDays,
+                spot -> getAdjustedDuration(spot, numberOfDays, totalSpots) + TRAVEL_BUFFER_MINUTES / 60.0,
+                minSpotsPerDay);
 
-
-
-        List<TouristSpot> shuffledSpots = new ArrayList<>(spots);
-        Collections.shuffle(shuffledSpots, new Random(spots.hashCode()));
-
-        int spotIndex = 0;
-        for (TouristSpot spot : shuffledSpots) {
-            int dayIndex = spotIndex % numberOfDays;
-            LocalDate dayDate = startDate.plusDays(dayIndex);
-            dayWiseSpots.get(dayDate).add(spot);
-            spotIndex++;
+        for (int i = 0; i < numberOfDays; i++) {
+            dayWiseSpots.put(startDate.plusDays(i), clusters.get(i));
         }
+        
+        return dayWiseSpots;
+    }
+    
+    /**
+     * Plan a whole stay: split the selected spots into days, top up days with fewer than
+     * four spots with nearby unselected spots, order and schedule each day and attach the
+     * weather. Every selected spot appears on exactly one day.
+     * @param onDay called with each day as soon as it is planned (may be null)
+     * @return the plan, or null if the thread was interrupted before it was finished
+     */
+    public ItineraryPlan generatePlan(String destinationCode, Hotel hotel, List<TouristSpot> selectedSpots,
+                                      LocalDate checkIn, LocalDate checkOut, Consumer<ItineraryPlan.Day> onDay) {
+        int numberOfDays = (int) Math.max(1, ChronoUnit.DAYS.between(checkIn, checkOut));
+        Set<Integer> selectedSpotIds = new HashSet<>();
+        for (TouristSpot spot : selectedSpots) {
+            selectedSpotIds.add(spot.getId());
+        }
+        Map<LocalDate, List<TouristSpot>> dayWiseSpots = selectedSpots.isEmpty() ? new HashMap<>()
+                : distributeSpots(selectedSpots, hotel, checkIn, numberOfDays);
+
+        List<ItineraryPlan.Day> days = new ArrayList<>(numberOfDays);
+        for (int day = 0; day < numberOfDays; day++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            LocalDate date = checkIn.plusDays(day);
+            List<TouristSpot> daySpots = new ArrayList<>(dayWiseSpots.getOrDefault(date, Collections.emptyList()));
+
+            if (!selectedSpots.isEmpty() && daySpots.size() < 4) {
+                int availableHours = MAX_HOURS_PER_DAY - calculateDayDuration(daySpots);
+                List<TouristSpot> recommendedSpots = getRecommendedSpotsForExtraTime(
+                        destinationCode, selectedSpotIds, daySpots, availableHours);
+                int spotsNeeded = Math.min(4 - daySpots.size(), recommendedSpots.size());
+                if (spotsNeeded > 0) {
+                    daySpots.addAll(recommendedSpots.subList(0, spotsNeeded));
+                }
+            }
 
-        int minSpotsPerDay = 4;
-        int totalAvailable = totalSpots;
-
-        if (totalAvailable >= minSpotsPerDay * numberOfDays) {
-
-            for (int day = 0; day < numberOfDays; day++) {
-                LocalDate dayDate = startDate.plusDays(day);
-                List<TouristSpot> daySpots = dayWiseSpots.get(dayDate);
+            List<TouristSpot> route = optimizeRoute(daySpots, hotel);
+            Map<TouristSpot, TimeSlot> schedule = scheduleDay(route, hotel, date, numberOfDays, selectedSpots.size());
 
-                while (daySpots.size() < minSpotsPerDay) {
+            List<TouristSpot> byStartTime = new ArrayList<>(route);
+            byStartTime.sort(Comparator.comparing(spot -> schedule.get(spot).getStartTime()));
+            List<ItineraryPlan.Visit> visits = new ArrayList<>(byStartTime.size());
+            for (int i = 0; i < byStartTime.size(); i++) {
+                TouristSpot spot = byStartTime.get(i);
+                TravelInfo travel = i > 0 ? getTravelInfo(byStartTime.get(i - 1), spot) : null;
+                visits.add(new ItineraryPlan.Visit(spot, schedule.get(spot), travel));
+            }
 
-                    LocalDate donorDay = null;
-                    int maxSpots = 0;
-                    for (int d = 0; d < numberOfDays; d++) {
-                        LocalDate dDate = startDate.plusDays(d);
-                        int count = dayWiseSpots.get(dDate).size();
-                        if (count > maxSpots && count > minSpotsPerDay) {
-                            maxSpots = count;
-                            donorDay = dDate;
-                        }
-                    }
-                    
-                    if (donorDay != null && dayWiseSpots.get(donorDay).size() > minSpotsPerDay) {
-                        List<TouristSpot> donorSpots = dayWiseSpots.get(donorDay);
-                        if (!donorSpots.isEmpty()) {
-                            TouristSpot movedSpot = donorSpots.remove(donorSpots.size() - 1);
-                            daySpots.add(movedSpot);
-                        } else {
-                            break; // No more spots to move
-                        }
-                    } else {
-                        break; // No days have extra spots
-                    }
-                }
+            ItineraryPlan.Day planned = new ItineraryPlan.Day(day + 1, date, visits,
+                    weatherService.getWeatherForecast(destinationCode, date));
+            days.add(planned);
+            if (onDay != null) {
+                onDay.accept(planned);
             }
         }
+        return new ItineraryPlan(ItineraryPlan.Key.of(destinationCode, hotel, selectedSpots, checkIn, checkOut), days);
+    }
+
+    /**
+     * Group spots into days, then put any spot the grouping left out on the least busy day.
+     * Every day of the stay gets a (possibly empty) list.
+     */
+    private Map<LocalDate, List<TouristSpot>> distributeSpots(List<TouristSpot> spots, Hotel hotel,
+                                                            LocalDate startDate, int numberOfDays) {
+        Map<LocalDate, List<TouristSpot>> dayWiseSpots = groupSpotsByProximity(spots, hotel, startDate, numberOfDays);
+        for (int d = 0; d < numberOfDays; d++) {
+            dayWiseSpots.computeIfAbsent(startDate.plusDays(d), k -> new ArrayList<>());
+        }
 
-        Set<Integer> distributedIds = new HashSet<>();
+        Set<Integer> distributedSpotIds = new HashSet<>();
         for (List<TouristSpot> daySpots : dayWiseSpots.values()) {
             for (TouristSpot spot : daySpots) {
-                distributedIds.add(spot.getId());
+                distributedSpotIds.add(spot.getId());
             }
         }
-
         for (TouristSpot spot : spots) {
-            if (!distributedIds.contains(spot.getId())) {
-
+            if (distributedSpotIds.add(spot.getId())) {
                 LocalDate bestDay = startDate;
-                int minCount = Integer.MAX_VALUE;
+                int minSpots = Integer.MAX_VALUE;
                 for (int d = 0; d < numberOfDays; d++) {
-                    LocalDate dDate = startDate.plusDays(d);
-                    int count = dayWiseSpots.get(dDate).size();
-                    if (count < minCount) {
-                        minCount = count;
-                        bestDay = dDate;
+                    LocalDate dayDate = startDate.plusDays(d);
+                    int count = dayWiseSpots.get(dayDate).size();
+                    if (count < minSpots) {
+                        minSpots = count;
+                        bestDay = dayDate;
                     }
                 }
                 dayWiseSpots.get(bestDay).add(spot);
             }
         }
-        
+
+        // If one day holds most of the spots, deal them out round-robin instead
+        int totalSpots = 0;
+        int largestDay = 0;
+        for (int d = 0; d < numberOfDays; d++) {
+            int count = dayWiseSpots.get(startDate.plusDays(d)).size();
+            totalSpots += count;
+            largestDay = Math.max(largestDay, count);
+        }
+        if (totalSpots > numberOfDays && largestDay > totalSpots * 0.8) {
+            List<TouristSpot> allSpots = new ArrayList<>();
+            for (int d = 0; d < numberOfDays; d++) {
+                LocalDate dayDate = startDate.plusDays(d);
+                allSpots.addAll(dayWiseSpots.get(dayDate));
+                dayWiseSpots.put(dayDate, new ArrayList<>());
+            }
+            for (int i = 0; i < allSpots.size(); i++) {
+                dayWiseSpots.get(startDate.plusDays(i % numberOfDays)).add(allSpots.get(i));
+            }
+        }
         return dayWiseSpots;
     }
+
+    /**
+     * Get recommended spots for extra time in a day
+     * Only adds spots if there's available time, and keeps all selected spots
+     */
+    private List<TouristSpot> getRecommendedSpotsForExtraTime(String destinationCode,
+                                                              Set<Integer> alreadySelectedIds,
+                                                              List<TouristSpot> existingDaySpots,
+                                                              int availableHours) {
+        List<TouristSpot> recommended = new ArrayList<>();
+        if (touristSpotService == null) {
+            return recommended;
+        }
+
+        List<TouristSpot> availableSpots = new ArrayList<>();
+        for (TouristSpot spot : touristSpotService.getTouristSpotsByDestination(destinationCode)) {
+            if (!alreadySelectedIds.contains(spot.getId()) && !existingDaySpots.contains(spot)) {
+                availableSpots.add(spot);
+            }
+        }
+        availableSpots.sort(Comparator.comparingDouble(TouristSpot::getDistanceFromCityCenter));
+
+        int usedHours = 0;
+        Set<String> categories = new HashSet<>();
+        for (TouristSpot spot : existingDaySpots) {
+            categories.add(spot.getCategory());
+        }
+
+        for (TouristSpot spot : availableSpots) {
+            if (usedHours >= availableHours - 1) {
+                break; // Stop if we've used most of available time
+            }
+
+            double spotDuration = spot.getEstimatedDuration();
+            int travelTime = existingDaySpots.isEmpty() ? 0 : 1; // Estimate 1 hour travel
+
+            if (usedHours + (int) Math.ceil(spotDuration) + travelTime <= availableHours) {
+                if (!categories.contains(spot.getCategory()) || recommended.size() < 2) {
+                    recommended.add(spot);
+                    usedHours += spotDuration + travelTime;
+                    categories.add(spot.getCategory());
+
+                    if (recommended.size() >= 3) {
+                        break; // Max 3 recommendations per day
+                    }
+                }
+            }
+        }
+
+        return recommended;
+    }
     
     /**
      * Calculate total duration for a day's spots including travel time
@@ -201,31 +322,11 @@ public class ItineraryGenerator {
     }
     
     /**
-     * Optimize route within a day using nearest-neighbor algorithm
+     * Optimize route within a day: shortest round trip from the hotel through every spot
+     * (see RouteOptimizer)
      */
     public List<TouristSpot> optimizeRoute(List<TouristSpot> daySpots, Hotel hotel) {
-        if (daySpots == null || daySpots.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        List<TouristSpot> optimizedRoute = new ArrayList<>();
-        List<TouristSpot> unvisited = new ArrayList<>(daySpots);
-
-        TouristSpot current = findClosestToHotel(unvisited, hotel);
-        if (current == null && !unvisited.isEmpty()) {
-            current = unvisited.get(0);
-        }
-        
-        while (current != null) {
-            optimizedRoute.add(current);
-            unvisited.remove(current);
-            
-            if (unvisited.isEmpty()) break;
-
-            current = findClosestSpot(unvisited, current);
-        }
-        
-        return optimizedRoute;
+        return routeOptimizer.optimize(daySpots, hotel);
     }
     
     /**
@@ -233,31 +334,14 @@ public class ItineraryGenerator {
      * Rounds to nearest 15 minutes (00, 15, 30, 45)
      */
     public int calculateTravelTimeMinutes(TouristSpot from, TouristSpot to) {
-        double distance = calculateDistance(
-                from.getLatitude(), from.getLongitude(),
-                to.getLatitude(), to.getLongitude()
-        );
-
-
-        int minutes = (int) Math.ceil((distance / 30.0) * 60);
-
-        minutes = Math.max(15, minutes + TRAVEL_BUFFER_MINUTES);
-
-        return roundToNearest15(minutes);
+        return travelMatrix.getTravelTimeMinutes(from, to);
     }
     
     /**
      * Round minutes to nearest 15-minute interval (00, 15, 30, 45)
      */
     private int roundToNearest15(int minutes) {
-        int remainder = minutes % 15;
-        if (remainder == 0) {
-            return minutes; // Already on 15-minute mark
-        } else if (remainder <= 7) {
-            return minutes - remainder; // Round down
-        } else {
-            return minutes + (15 - remainder); // Round up
-        }
+        return TravelMatrix.roundToNearest15(minutes);
     }
     
     /**
@@ -265,29 +349,14 @@ public class ItineraryGenerator {
      * Times rounded to nearest 15 minutes
      */
     public TravelInfo getTravelInfo(TouristSpot from, TouristSpot to) {
-        double distance = calculateDistance(
-                from.getLatitude(), from.getLongitude(),
-                to.getLatitude(), to.getLongitude()
-        );
-        
-        int autoMinutes = (int) Math.ceil((distance / 30.0) * 60); // Auto/Taxi: 30 km/h
-        int metroMinutes = (int) Math.ceil((distance / 20.0) * 60); // Metro/Bus: 20 km/h
-        int walkingMinutes = (int) Math.ceil((distance / 5.0) * 60); // Walking: 5 km/h
-
-        autoMinutes = roundToNearest15(autoMinutes);
-        metroMinutes = roundToNearest15(metroMinutes);
-        walkingMinutes = roundToNearest15(walkingMinutes);
-
-        autoMinutes = Math.max(15, autoMinutes);
-        metroMinutes = Math.max(15, metroMinutes);
-        walkingMinutes = Math.max(15, walkingMinutes);
+        return travelMatrix.getTravelInfo(from, to);
+    }
 
-        int autoCost = (int) Math.ceil(distance * 12); // ₹12 per km
-        int metroCost = distance < 5 ? 20 : 40; // Fixed fare
-        int walkingCost = 0;
-        
-        return new TravelInfo(distance, autoMinutes, metroMinutes, walkingMinutes, 
-                             autoCost, metroCost, walkingCost);
+    /**
+     * Shared travel-time cache (hit/miss counters in getStats())
+     */
+    public TravelMatrix getTravelMatrix() {
+        return travelMatrix;
     }
     
     /**
@@ -327,29 +396,14 @@ public class ItineraryGenerator {
      * Check if time slot conflicts with peak hours
      */
     public boolean isPeakHour(LocalTime time, TouristSpot spot) {
-        if (spot.getPeakHours() == null || spot.getPeakHours().isEmpty()) {
-            return false;
-        }
-
-        return time.isAfter(LocalTime.of(10, 0)) && time.isBefore(LocalTime.of(14, 0));
+        return SpotTimeWindows.of(spot).isPeak(time);
     }
     
     /**
      * Calculate distance between two coordinates using Haversine formula
      */
     public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth's radius in kilometers
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c;
+        return GeoUtils.distanceKm(lat1, lon1, lat2, lon2);
     }
     
     /**
@@ -397,55 +451,130 @@ public class ItineraryGenerator {
             }
         }
 
+        DaySchedule booked = new DaySchedule();
         LocalTime currentTime = LocalTime.of(9, 0); // Start at 9 AM
 
         currentTime = scheduleSpotsInWindow(morningSpots, currentTime, LocalTime.of(9, 0), LocalTime.of(12, 0), 
-                                            schedule, numberOfDays, totalSpots);
+                                            schedule, booked, numberOfDays, totalSpots);
 
         if (currentTime.isBefore(LocalTime.of(13, 0))) {
             currentTime = LocalTime.of(13, 0);
         }
 
         currentTime = scheduleSpotsInWindow(afternoonSpots, currentTime, LocalTime.of(13, 0), LocalTime.of(16, 0), 
-                                            schedule, numberOfDays, totalSpots);
+                                            schedule, booked, numberOfDays, totalSpots);
 
         currentTime = scheduleSpotsInWindow(eveningSpots, currentTime, LocalTime.of(16, 0), LocalTime.of(19, 0), 
-                                            schedule, numberOfDays, totalSpots);
+                                            schedule, booked, numberOfDays, totalSpots);
 
         LocalTime maxEndTime = orderedSpots.size() > 5 || numberOfDays == 1 ? LocalTime.of(21, 0) : LocalTime.of(19, 0);
         scheduleSpotsInWindow(anytimeSpots, currentTime, LocalTime.of(9, 0), maxEndTime, 
-                             schedule, numberOfDays, totalSpots);
-
-        resolveConflicts(schedule, orderedSpots);
+                             schedule, booked, numberOfDays, totalSpots);
 
-        LocalTime defaultStartTime = LocalTime.of(9, 0);
-        for (TouristSpot spot : orderedSpots) {
-            if (!schedule.containsKey(spot) || schedule.get(spot) == null) {
+        placeRemaining(orderedSpots, null, schedule, booked, numberOfDays, totalSpots);
+        
+        return schedule;
+    }
+    
+    /**
+     * Schedule a day's spots on a specific date, honouring each spot's opening hours,
+     * closed days and peak hours, travel time between spots and a lunch break
+     * (see DayScheduler). Spots that cannot be fitted in are still placed, like in
+     * scheduleTimeSlots, so none is dropped from the itinerary.
+     */
+    public Map<TouristSpot, TimeSlot> scheduleDay(List<TouristSpot> orderedSpots, Hotel hotel, LocalDate date,
+                                                   int numberOfDays, int totalSpots) {
+        Map<TouristSpot, TimeSlot> schedule = new LinkedHashMap<>();
+        if (orderedSpots == null || orderedSpots.isEmpty()) {
+            return schedule;
+        }
+        if (date == null) {
+            return scheduleTimeSlots(orderedSpots, hotel, numberOfDays, totalSpots);
+        }
 
-                LocalTime latestEndTime = defaultStartTime;
-                for (TimeSlot existingSlot : schedule.values()) {
-                    if (existingSlot != null && existingSlot.getEndTime().isAfter(latestEndTime)) {
-                        latestEndTime = existingSlot.getEndTime();
-                    }
+        int n = orderedSpots.size();
+        int[] lengthSlots = new int[n];
+        int[][] travelSlots = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            TouristSpot spot = orderedSpots.get(i);
+            lengthSlots[i] = durationSlots(getAdjustedDuration(spot, numberOfDays, totalSpots));
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    travelSlots[i][j] = calculateTravelTimeMinutes(spot, orderedSpots.get(j)) / SLOT_MINUTES;
                 }
+            }
+        }
 
-                LocalTime startTime = latestEndTime.plusMinutes(30); // 30 min buffer
-                startTime = roundTimeTo15Minutes(startTime); // Round to 15-minute interval
-                if (startTime.isAfter(LocalTime.of(21, 0))) {
-                    startTime = defaultStartTime; // Reset if too late
+        DayScheduler.Result result = dayScheduler.schedule(orderedSpots, date, lengthSlots, travelSlots,
+                SCHEDULE_BUDGET_MILLIS);
+
+        DaySchedule booked = new DaySchedule();
+        for (int i : result.getVisitOrder()) {
+            int start = result.getStartSlot(i);
+            booked.book(start, start + lengthSlots[i]);
+            schedule.put(orderedSpots.get(i), new TimeSlot(fromSlot(start), fromSlot(start + lengthSlots[i])));
+        }
+        if (result.getLunchSlot() >= 0) {
+            booked.book(result.getLunchSlot(), result.getLunchSlot() + LUNCH_BREAK_HOURS * 60 / SLOT_MINUTES);
+        }
+
+        placeRemaining(orderedSpots, date, schedule, booked, numberOfDays, totalSpots);
+        return schedule;
+    }
+
+    /**
+     * Spots that did not fit: a free slot inside the spot's opening hours on that date
+     * (when known), else the first free slot after the last visit, else anywhere in the day
+     */
+    private void placeRemaining(List<TouristSpot> orderedSpots, LocalDate date, Map<TouristSpot, TimeSlot> schedule,
+                                DaySchedule booked, int numberOfDays, int totalSpots) {
+        LocalTime defaultStartTime = LocalTime.of(9, 0);
+        for (TouristSpot spot : orderedSpots) {
+            if (schedule.containsKey(spot)) {
+                continue;
+            }
+            int lengthSlots = durationSlots(getAdjustedDuration(spot, numberOfDays, totalSpots));
+            if (date != null) {
+                int open = freeWhileOpen(SpotTimeWindows.of(spot), date, booked, lengthSlots);
+                if (open >= 0) {
+                    booked.book(open, open + lengthSlots);
+                    schedule.put(spot, new TimeSlot(fromSlot(open), fromSlot(open + lengthSlots)));
+                    continue;
                 }
-                
-                double adjustedDuration = getAdjustedDuration(spot, numberOfDays, totalSpots);
-                int durationHours = (int) adjustedDuration;
-                int durationMinutes = (int) ((adjustedDuration - durationHours) * 60);
-                LocalTime endTime = startTime.plusHours(durationHours).plusMinutes(durationMinutes);
-                endTime = roundTimeTo15Minutes(endTime); // Round to 15-minute interval
-                
-                schedule.put(spot, new TimeSlot(startTime, endTime));
             }
+            int after = Math.max(booked.lastBookedSlot() + 1, toSlot(defaultStartTime)) + 2; // 30 min buffer
+            int latestStart = toSlot(LocalTime.of(21, 0));
+            int start = booked.findFree(after, latestStart, lengthSlots);
+            if (start < 0) {
+                start = booked.findFree(toSlot(defaultStartTime), latestStart, lengthSlots);
+            }
+            if (start < 0) {
+                start = toSlot(defaultStartTime); // day is full; overlap rather than drop the spot
+            }
+            booked.book(start, start + lengthSlots);
+            schedule.put(spot, new TimeSlot(fromSlot(start), fromSlot(start + lengthSlots)));
         }
-        
-        return schedule;
+    }
+    
+    /**
+     * First start slot in the day (9 AM - 9 PM) that is free and inside the spot's opening
+     * hours, or -1
+     */
+    private static int freeWhileOpen(SpotTimeWindows windows, LocalDate date, DaySchedule booked, int lengthSlots) {
+        int latestStart = DayScheduler.DAY_END_SLOT - lengthSlots;
+        int from = DayScheduler.DAY_START_SLOT;
+        while (from <= latestStart) {
+            int start = windows.earliestStart(date, from, lengthSlots, DayScheduler.DAY_END_SLOT);
+            if (start < 0 || start > latestStart) {
+                return -1;
+            }
+            int free = booked.findFree(start, start, lengthSlots);
+            if (free >= 0) {
+                return free;
+            }
+            from = start + 1;
+        }
+        return -1;
     }
     
     /**
@@ -455,7 +584,7 @@ public class ItineraryGenerator {
      */
     private LocalTime scheduleSpotsInWindow(List<TouristSpot> spots, LocalTime startTime, 
                                            LocalTime windowStart, LocalTime windowEnd, 
-                                           Map<TouristSpot, TimeSlot> schedule,
+                                           Map<TouristSpot, TimeSlot> schedule, DaySchedule booked,
                                            int numberOfDays, int totalSpots) {
         LocalTime currentTime = startTime;
 
@@ -492,20 +621,21 @@ public class ItineraryGenerator {
             LocalTime endTime = startTimeForSpot.plusHours(adjustedDurationHours).plusMinutes(adjustedDurationMinutes);
             endTime = roundTimeTo15Minutes(endTime);
 
-            TimeSlot proposedSlot = new TimeSlot(startTimeForSpot, endTime);
-            if (hasConflict(proposedSlot, spot, schedule)) {
+            if (!booked.isFree(toSlot(startTimeForSpot), toEndSlot(startTimeForSpot, endTime))) {
 
-                TimeSlot adjustedSlot = findNextAvailableSlot(spot, currentTime, windowEnd, schedule, 
-                                                             adjustedDurationHours, adjustedDurationMinutes);
-                if (adjustedSlot != null) {
-                    startTimeForSpot = adjustedSlot.getStartTime();
-                    endTime = adjustedSlot.getEndTime();
+                int lengthSlots = durationSlots(adjustedDuration);
+                int latestStart = Math.min(LATEST_START_SLOT, toSlot(windowEnd) - lengthSlots);
+                int freeStart = booked.findFree(toSlot(currentTime), latestStart, lengthSlots);
+                if (freeStart >= 0) {
+                    startTimeForSpot = fromSlot(freeStart);
+                    endTime = fromSlot(freeStart + lengthSlots);
                 } else {
 
                     break;
                 }
             }
             
+            booked.book(toSlot(startTimeForSpot), toEndSlot(startTimeForSpot, endTime));
             schedule.put(spot, new TimeSlot(startTimeForSpot, endTime));
 
             if (i < spots.size() - 1) {
@@ -525,132 +655,71 @@ public class ItineraryGenerator {
         return currentTime;
     }
     
-    /**
-     * Check if a time slot conflicts with any already scheduled slot
-     * Two slots conflict if they overlap (even partially)
-     */
-    private boolean hasConflict(TimeSlot newSlot, TouristSpot newSpot, Map<TouristSpot, TimeSlot> schedule) {
-        if (newSlot == null || schedule == null || schedule.isEmpty()) {
-            return false;
-        }
-        
-        LocalTime newStart = newSlot.getStartTime();
-        LocalTime newEnd = newSlot.getEndTime();
-        
-        for (Map.Entry<TouristSpot, TimeSlot> entry : schedule.entrySet()) {
-            TouristSpot existingSpot = entry.getKey();
-            TimeSlot existingSlot = entry.getValue();
+    private static final int SLOT_MINUTES = SpotTimeWindows.SLOT_MINUTES;
+    private static final int SLOTS_PER_DAY = SpotTimeWindows.SLOTS_PER_DAY;
+    private static final int LATEST_START_SLOT = 23 * 60 / SLOT_MINUTES; // nothing starts after 11 PM
 
-            if (existingSpot.equals(newSpot)) {
-                continue;
-            }
-            
-            LocalTime existingStart = existingSlot.getStartTime();
-            LocalTime existingEnd = existingSlot.getEndTime();
-
-
-            if (newStart.isBefore(existingEnd) && newEnd.isAfter(existingStart)) {
-                return true; // Conflict detected
-            }
-        }
-        
-        return false;
+    private static int toSlot(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
     }
-    
+
     /**
-     * Find the next available non-conflicting time slot for a spot
-     * Uses adjusted duration parameters
+     * End slot (exclusive) of a visit; an end time that wrapped past midnight means end of day
      */
-    private TimeSlot findNextAvailableSlot(TouristSpot spot, LocalTime startFrom, 
-                                          LocalTime windowEnd, Map<TouristSpot, TimeSlot> schedule,
-                                          int durationHours, int durationMinutes) {
-        LocalTime currentTime = startFrom;
-        LocalTime latestStart = windowEnd.minusHours(durationHours).minusMinutes(durationMinutes);
-
-        while (currentTime.isBefore(latestStart) || currentTime.equals(latestStart)) {
-            currentTime = roundTimeTo15Minutes(currentTime);
-            LocalTime endTime = currentTime.plusHours(durationHours).plusMinutes(durationMinutes);
-            endTime = roundTimeTo15Minutes(endTime);
-            
-            TimeSlot testSlot = new TimeSlot(currentTime, endTime);
-            if (!hasConflict(testSlot, spot, schedule)) {
-                return testSlot;
-            }
-
-            currentTime = currentTime.plusMinutes(15);
-
-            if (currentTime.isAfter(LocalTime.of(23, 0))) {
-                break;
-            }
+    private static int toEndSlot(LocalTime start, LocalTime end) {
+        if (!end.isAfter(start)) {
+            return SLOTS_PER_DAY;
         }
-        
-        return null; // No available slot found
+        return Math.min(SLOTS_PER_DAY, (end.getHour() * 60 + end.getMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES);
     }
-    
+
+    private static LocalTime fromSlot(int slot) {
+        return slot >= SLOTS_PER_DAY ? LocalTime.MAX.withSecond(0).withNano(0)
+                : LocalTime.of(slot * SLOT_MINUTES / 60, slot * SLOT_MINUTES % 60);
+    }
+
     /**
-     * Overloaded method for backwards compatibility
+     * Number of 15-minute slots a visit takes, rounded like the rest of the schedule
      */
-    private TimeSlot findNextAvailableSlot(TouristSpot spot, LocalTime startFrom, 
-                                          LocalTime windowEnd, Map<TouristSpot, TimeSlot> schedule) {
-        double duration = spot.getEstimatedDuration();
-        return findNextAvailableSlot(spot, startFrom, windowEnd, schedule, (int) Math.ceil(duration), 0);
+    private int durationSlots(double hours) {
+        int wholeHours = (int) hours;
+        int minutes = wholeHours * 60 + (int) ((hours - wholeHours) * 60);
+        return Math.max(1, roundToNearest15(minutes) / SLOT_MINUTES);
     }
-    
+
     /**
-     * Resolve any conflicts in the schedule by adjusting time slots
-     * This is a final validation pass to ensure no conflicts exist
+     * Booked 15-minute slots of one day. Every schedule time is on the 15-minute grid,
+     * so a 96-bit set is exact; conflict checks and free-slot search are a few word scans.
      */
-    private void resolveConflicts(Map<TouristSpot, TimeSlot> schedule, List<TouristSpot> orderedSpots) {
-        if (schedule == null || schedule.isEmpty()) {
-            return;
+    private static class DaySchedule {
+        private final BitSet busy = new BitSet(SLOTS_PER_DAY);
+
+        boolean isFree(int startSlot, int endSlot) {
+            int next = busy.nextSetBit(startSlot);
+            return next < 0 || next >= endSlot;
         }
 
-        boolean hasConflicts = true;
-        int maxIterations = 10; // Prevent infinite loops
-        int iteration = 0;
-        
-        while (hasConflicts && iteration < maxIterations) {
-            hasConflicts = false;
-            iteration++;
-            
-            List<TouristSpot> spotsList = new ArrayList<>(schedule.keySet());
-            
-            for (int i = 0; i < spotsList.size(); i++) {
-                TouristSpot spot1 = spotsList.get(i);
-                TimeSlot slot1 = schedule.get(spot1);
-                
-                if (slot1 == null) continue;
-                
-                for (int j = i + 1; j < spotsList.size(); j++) {
-                    TouristSpot spot2 = spotsList.get(j);
-                    TimeSlot slot2 = schedule.get(spot2);
-                    
-                    if (slot2 == null) continue;
-
-                    if (slotsOverlap(slot1, slot2)) {
-                        hasConflicts = true;
-
-                        LocalTime newStart = slot1.getEndTime();
-
-                        newStart = newStart.plusMinutes(15); // Minimum 15-minute buffer
-                        newStart = roundTimeTo15Minutes(newStart);
-                        
-                        LocalTime newEnd = newStart.plusMinutes((int) Math.round(spot2.getEstimatedDuration() * 60));
-                        newEnd = roundTimeTo15Minutes(newEnd);
-
-                        TimeSlot newSlot = new TimeSlot(newStart, newEnd);
-                        if (!hasConflict(newSlot, spot2, schedule)) {
-                            schedule.put(spot2, newSlot);
-                        } else {
-
-                            TimeSlot adjustedSlot = findNextAvailableSlot(spot2, newStart, LocalTime.of(19, 0), schedule);
-                            if (adjustedSlot != null) {
-                                schedule.put(spot2, adjustedSlot);
-                            }
-                        }
-                    }
+        void book(int startSlot, int endSlot) {
+            busy.set(startSlot, Math.min(SLOTS_PER_DAY, endSlot));
+        }
+
+        int lastBookedSlot() {
+            return busy.length() - 1;
+        }
+
+        /**
+         * First start slot in [fromSlot, latestStartSlot] with lengthSlots free slots, or -1
+         */
+        int findFree(int fromSlot, int latestStartSlot, int lengthSlots) {
+            int start = busy.nextClearBit(Math.max(0, fromSlot));
+            while (start <= latestStartSlot && start + lengthSlots <= SLOTS_PER_DAY) {
+                int nextBusy = busy.nextSetBit(start);
+                if (nextBusy < 0 || nextBusy - start >= lengthSlots) {
+                    return start;
                 }
+                start = busy.nextClearBit(nextBusy);
             }
+            return -1;
         }
     }
     
@@ -679,23 +748,18 @@ public class ItineraryGenerator {
             return true; // Empty schedule is valid
         }
         
-        List<TouristSpot> spots = new ArrayList<>(schedule.keySet());
-        
-        for (int i = 0; i < spots.size(); i++) {
-            TouristSpot spot1 = spots.get(i);
-            TimeSlot slot1 = schedule.get(spot1);
-            
-            if (slot1 == null) continue;
-            
-            for (int j = i + 1; j < spots.size(); j++) {
-                TouristSpot spot2 = spots.get(j);
-                TimeSlot slot2 = schedule.get(spot2);
-                
-                if (slot2 == null) continue;
-                
-                if (slotsOverlap(slot1, slot2)) {
-                    return false; // Conflict found
-                }
+        List<TimeSlot> slots = new ArrayList<>(schedule.size());
+        for (TimeSlot slot : schedule.values()) {
+            if (slot != null) {
+                slots.add(slot);
+            }
+        }
+        slots.sort(Comparator.comparing(TimeSlot::getStartTime));
+
+        // Sorted by start, any overlap shows up between neighbours
+        for (int i = 1; i < slots.size(); i++) {
+            if (slotsOverlap(slots.get(i - 1), slots.get(i))) {
+                return false; // Conflict found
             }
         }
         
@@ -717,17 +781,10 @@ public class ItineraryGenerator {
     }
     
     /**
-     * Check if spot is open on given date
+     * Check if spot is open on given date (closed days, and opening hours limited to certain days)
      */
     public boolean checkOpeningHours(TouristSpot spot, LocalDate date) {
-        if (spot.getClosedDays() == null || spot.getClosedDays().isEmpty()) {
-            return true;
-        }
-        
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        String closedDays = spot.getClosedDays().toLowerCase();
-        
-        return !closedDays.contains(dayOfWeek.toString().toLowerCase());
+        return !SpotTimeWindows.of(spot).isClosedOn(date);
     }
     
     /**
@@ -797,33 +854,6 @@ public class ItineraryGenerator {
         return suggestedTime;
     }
     
-    /**
-     * Find closest spot to hotel
-     */
-    private TouristSpot findClosestToHotel(List<TouristSpot> spots, Hotel hotel) {
-        if (spots.isEmpty() || hotel == null) {
-            return spots.isEmpty() ? null : spots.get(0);
-        }
-
-
-        return spots.stream()
-                .min(Comparator.comparingDouble(TouristSpot::getDistanceFromCityCenter))
-                .orElse(null);
-    }
-    
-    /**
-     * Find closest spot to given spot
-     */
-    private TouristSpot findClosestSpot(List<TouristSpot> spots, TouristSpot from) {
-        if (spots.isEmpty()) return null;
-        
-        return spots.stream()
-                .min(Comparator.comparingDouble(spot -> 
-                    calculateDistance(from.getLatitude(), from.getLongitude(),
-                                    spot.getLatitude(), spot.getLongitude())))
-                .orElse(null);
-    }
-    
     /**
      * Inner class to represent time slot
      */
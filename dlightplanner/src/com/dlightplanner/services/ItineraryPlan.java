@@ -0,0 +1,112 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Hotel;
+import com.dlightplanner.models.TouristSpot;
+import com.dlightplanner.services.ItineraryGenerator.TimeSlot;
+import com.dlightplanner.services.ItineraryGenerator.TravelInfo;
+import com.dlightplanner.services.WeatherService.WeatherForecast;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Itinerary Plan - the computed itinerary of one stay, independent of Swing.
+ *
+ * Each day lists its visits in time order (spot, time slot, travel from the previous
+ * visit) and the day's weather. Plans are immutable, so one plan can be cached and
+ * shared by the itinerary page, re-renders and exports (see ItineraryPlanCache).
+ */
+public final class ItineraryPlan {
+    private final Key key;
+    private final List<Day> days;
+
+    public ItineraryPlan(Key key, List<Day> days) {
+        this.key = key;
+        this.days = Collections.unmodifiableList(new ArrayList<>(days));
+    }
+
+    public Key getKey() { return key; }
+    public List<Day> getDays() { return days; }
+
+    /**
+     * What a plan depends on: destination, hotel, the set of selected spots and the dates
+     */
+    public record Key(String destinationCode, int hotelId, List<Integer> spotIds,
+                      LocalDate checkIn, LocalDate checkOut) {
+
+        public static Key of(String destinationCode, Hotel hotel, List<TouristSpot> spots,
+                             LocalDate checkIn, LocalDate checkOut) {
+            List<Integer> ids = new ArrayList<>(spots.size());
+            for (TouristSpot spot : spots) {
+                ids.add(spot.getId());
+            }
+            Collections.sort(ids);
+            return new Key(destinationCode, hotel != null ? hotel.getId() : -1,
+                    Collections.unmodifiableList(ids), checkIn, checkOut);
+        }
+    }
+
+    /**
+     * One day of the plan
+     */
+    public static final class Day {
+        private final int dayNumber;
+        private final LocalDate date;
+        private final List<Visit> visits;
+        private final WeatherForecast weather;
+
+        public Day(int dayNumber, LocalDate date, List<Visit> visits, WeatherForecast weather) {
+            this.dayNumber = dayNumber;
+            this.date = date;
+            this.visits = Collections.unmodifiableList(new ArrayList<>(visits));
+            this.weather = weather;
+        }
+
+        public int getDayNumber() { return dayNumber; }
+        public LocalDate getDate() { return date; }
+        public List<Visit> getVisits() { return visits; }
+        public WeatherForecast getWeather() { return weather; }
+
+        public List<TouristSpot> getSpots() {
+            List<TouristSpot> spots = new ArrayList<>(visits.size());
+            for (Visit visit : visits) {
+                spots.add(visit.getSpot());
+            }
+            return spots;
+        }
+
+        /**
+         * Spot -> time slot, in visiting order
+         */
+        public Map<TouristSpot, TimeSlot> getSchedule() {
+            Map<TouristSpot, TimeSlot> schedule = new LinkedHashMap<>();
+            for (Visit visit : visits) {
+                schedule.put(visit.getSpot(), visit.getTimeSlot());
+            }
+            return Collections.unmodifiableMap(schedule);
+        }
+    }
+
+    /**
+     * One scheduled visit; travelFromPrevious is null for the first visit of the day
+     */
+    public static final class Visit {
+        private final TouristSpot spot;
+        private final TimeSlot timeSlot;
+        private final TravelInfo travelFromPrevious;
+
+        public Visit(TouristSpot spot, TimeSlot timeSlot, TravelInfo travelFromPrevious) {
+            this.spot = spot;
+            this.timeSlot = timeSlot;
+            this.travelFromPrevious = travelFromPrevious;
+        }
+
+        public TouristSpot getSpot() { return spot; }
+        public TimeSlot getTimeSlot() { return timeSlot; }
+        public TravelInfo getTravelFromPrevious() { return travelFromPrevious; }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dlightplanner.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Itinerary Plan Cache - the most recently used itinerary plans, keyed by
+ * ItineraryPlan.Key, so reopening the itinerary page or exporting the booking reuses
+ * the plan instead of recomputing it.
+ */
+public class ItineraryPlanCache {
+    public static final int MAX_PLANS = 32;
+
+    private final Map<ItineraryPlan.Key, ItineraryPlan> plans =
+            new LinkedHashMap<ItineraryPlan.Key, ItineraryPlan>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ItineraryPlan.Key, ItineraryPlan> eldest) {
+                    return size() > MAX_PLANS;
+                }
+            };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Cached plan for the key, or null
+     */
+    public ItineraryPlan get(ItineraryPlan.Key key) {
+        ItineraryPlan plan;
+        synchronized (plans) {
+            plan = plans.get(key);
+        }
+        if (plan != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return plan;
+    }
+
+    public void put(ItineraryPlan plan) {
+        synchronized (plans) {
+            plans.put(plan.getKey(), plan);
+        }
+    }
+
+    public void clear() {
+        synchronized (plans) {
+            plans.clear();
+        }
+    }
+
+    public String getStats() {
+        int size;
+        synchronized (plans) {
+            size = plans.size();
+        }
+        return String.format("Itinerary plans: %d cached, %d hits, %d misses", size, hits.sum(), misses.sum());
+    }
+}
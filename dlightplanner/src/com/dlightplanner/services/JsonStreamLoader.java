@@ -0,0 +1,57 @@
+package com.dlightplanner.services;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON Stream Loader - reads a top-level JSON array one record at a time through a
+ * buffered channel reader instead of binding the whole document as one List type.
+ */
+public class JsonStreamLoader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Gson gson;
+
+    public JsonStreamLoader() {
+        gson = new Gson();
+    }
+
+    /**
+     * Read every record of a JSON array file into a list, one record at a time
+     * @param jsonPath path to a file whose root is a JSON array
+     * @param type record class
+     * @return the records, in file order; empty if the root is not an array
+     */
+    public <T> List<T> readAll(String jsonPath, Class<T> type) throws IOException {
+        List<T> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(jsonPath), StandardOpenOption.READ);
+             Reader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+             JsonReader jsonReader = new JsonReader(reader)) {
+
+            if (jsonReader.peek() != JsonToken.BEGIN_ARRAY) {
+                return records;
+            }
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                T record = gson.fromJson(jsonReader, type);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            jsonReader.endArray();
+        }
+        return records;
+    }
+}
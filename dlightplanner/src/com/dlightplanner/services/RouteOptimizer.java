@@ -0,0 +1,245 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Hotel;
+import com.dlightplanner.models.TouristSpot;
+import com.dlightplanner.utils.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Route Optimizer - orders one day's spots to minimise the distance travelled.
+ *
+ * The day is treated as a round trip from the hotel: node 0 is the hotel and nodes
+ * 1..n are the spots. When the hotel has no coordinates node 0 is a virtual depot at
+ * distance 0 from every spot, which turns the tour into the shortest open path.
+ * Days with up to EXACT_LIMIT spots are solved exactly (Held-Karp); larger days start
+ * from a nearest-neighbour tour and are improved with 2-opt and Or-opt moves.
+ */
+public class RouteOptimizer {
+    public static final int EXACT_LIMIT = 12;
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_IMPROVEMENT_PASSES = 1000;
+
+    /**
+     * Order the spots for a day
+     * @param hotel start and end of the day; may be null or lack coordinates
+     * @return a new list with the same spots in visiting order
+     */
+    public List<TouristSpot> optimize(List<TouristSpot> spots, Hotel hotel) {
+        if (spots == null || spots.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int n = spots.size();
+        if (n <= 2) {
+            return new ArrayList<>(spots); // any order of 2 spots is the same round trip
+        }
+
+        double[] distances = distanceMatrix(spots, hotel);
+        int[] tour = n <= EXACT_LIMIT ? heldKarp(distances, n + 1) : localSearch(distances, n + 1);
+
+        List<TouristSpot> route = new ArrayList<>(n);
+        for (int i = 1; i < tour.length; i++) {
+            route.add(spots.get(tour[i] - 1));
+        }
+        return route;
+    }
+
+    private static double distance(TouristSpot a, TouristSpot b) {
+        return GeoUtils.distanceKm(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+    }
+
+    /**
+     * Flat (n+1) x (n+1) matrix; row/column 0 is the hotel
+     */
+    private static double[] distanceMatrix(List<TouristSpot> spots, Hotel hotel) {
+        int size = spots.size() + 1;
+        double[] matrix = new double[size * size];
+        boolean hotelKnown = hotel != null && hotel.hasCoordinates();
+        for (int i = 1; i < size; i++) {
+            TouristSpot a = spots.get(i - 1);
+            if (hotelKnown) {
+                double km = GeoUtils.distanceKm(hotel.getLatitude(), hotel.getLongitude(), a.getLatitude(), a.getLongitude());
+                matrix[i] = km;
+                matrix[i * size] = km;
+            }
+            for (int j = i + 1; j < size; j++) {
+                double km = distance(a, spots.get(j - 1));
+                matrix[i * size + j] = km;
+                matrix[j * size + i] = km;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Exact shortest tour through all nodes starting and ending at node 0.
+     * dp[mask][j] = shortest path from node 0 through the spots in mask, ending at spot j.
+     */
+    private static int[] heldKarp(double[] d, int size) {
+        int n = size - 1;
+        int full = (1 << n) - 1;
+        double[] dp = new double[(1 << n) * n];
+        int[] parent = new int[(1 << n) * n];
+        Arrays.fill(dp, Double.POSITIVE_INFINITY);
+
+        for (int j = 0; j < n; j++) {
+            dp[(1 << j) * n + j] = d[j + 1];
+            parent[(1 << j) * n + j] = -1;
+        }
+        for (int mask = 1; mask <= full; mask++) {
+            for (int j = 0; j < n; j++) {
+                double cost = dp[mask * n + j];
+                if ((mask & (1 << j)) == 0 || cost == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int row = (j + 1) * size;
+                for (int k = 0; k < n; k++) {
+                    if ((mask & (1 << k)) != 0) {
+                        continue;
+                    }
+                    int next = (mask | (1 << k)) * n + k;
+                    double candidate = cost + d[row + k + 1];
+                    if (candidate < dp[next]) {
+                        dp[next] = candidate;
+                        parent[next] = j;
+                    }
+                }
+            }
+        }
+
+        int last = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < n; j++) {
+            double total = dp[full * n + j] + d[(j + 1) * size];
+            if (total < best) {
+                best = total;
+                last = j;
+            }
+        }
+
+        int[] tour = new int[size];
+        int mask = full;
+        for (int i = n; i >= 1; i--) {
+            tour[i] = last + 1;
+            int previous = parent[mask * n + last];
+            mask &= ~(1 << last);
+            last = previous;
+        }
+        return tour;
+    }
+
+    /**
+     * Nearest-neighbour tour from node 0, then 2-opt and Or-opt until neither improves it
+     */
+    private static int[] localSearch(double[] d, int size) {
+        int[] tour = new int[size];
+        boolean[] visited = new boolean[size];
+        visited[0] = true;
+        for (int i = 1; i < size; i++) {
+            int from = tour[i - 1];
+            int nearest = -1;
+            for (int k = 1; k < size; k++) {
+                if (!visited[k] && (nearest < 0 || d[from * size + k] < d[from * size + nearest])) {
+                    nearest = k;
+                }
+            }
+            tour[i] = nearest;
+            visited[nearest] = true;
+        }
+
+        for (int pass = 0; pass < MAX_IMPROVEMENT_PASSES; pass++) {
+            boolean improved = twoOpt(tour, d, size);
+            int[] moved = orOpt(tour, d, size);
+            if (moved != null) {
+                tour = moved;
+                improved = true;
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        return tour;
+    }
+
+    /**
+     * Reverse tour[i..k] whenever that shortens the tour; node 0 stays first
+     */
+    private static boolean twoOpt(int[] tour, double[] d, int size) {
+        boolean improved = false;
+        for (int i = 1; i < size - 1; i++) {
+            for (int k = i + 1; k < size; k++) {
+                int a = tour[i - 1], b = tour[i];
+                int c = tour[k], e = tour[(k + 1) % size];
+                double delta = d[a * size + c] + d[b * size + e] - d[a * size + b] - d[c * size + e];
+                if (delta < -EPSILON) {
+                    for (int lo = i, hi = k; lo < hi; lo++, hi--) {
+                        int t = tour[lo];
+                        tour[lo] = tour[hi];
+                        tour[hi] = t;
+                    }
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Move a run of 1-3 consecutive spots (either way round) to a better position
+     * @return the improved tour, or null if no move helps
+     */
+    private static int[] orOpt(int[] tour, double[] d, int size) {
+        for (int length = 1; length <= 3 && length < size - 1; length++) {
+            for (int i = 1; i + length <= size; i++) {
+                int first = tour[i];
+                int last = tour[i + length - 1];
+                int before = tour[i - 1];
+                int after = tour[(i + length) % size];
+                double removed = d[before * size + first] + d[last * size + after] - d[before * size + after];
+
+                for (int j = 0; j < size; j++) {
+                    if (j >= i - 1 && j < i + length) {
+                        continue; // edge touches the segment
+                    }
+                    int p = tour[j];
+                    int q = tour[(j + 1) % size];
+                    double forward = d[p * size + first] + d[last * size + q] - d[p * size + q];
+                    double reversed = d[p * size + last] + d[first * size + q] - d[p * size + q];
+                    double added = Math.min(forward, reversed);
+                    if (added < removed - EPSILON) {
+                        return moveSegment(tour, i, length, j, reversed < forward);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cut tour[i..i+length-1] out and reinsert it after the node originally at position j
+     */
+    private static int[] moveSegment(int[] tour, int i, int length, int j, boolean reverse) {
+        int size = tour.length;
+        int[] segment = new int[length];
+        for (int s = 0; s < length; s++) {
+            segment[s] = tour[i + (reverse ? length - 1 - s : s)];
+        }
+        int[] result = new int[size];
+        int out = 0;
+        for (int k = 0; k < size; k++) {
+            if (k >= i && k < i + length) {
+                continue;
+            }
+            result[out++] = tour[k];
+            if (k == j) {
+                for (int s = 0; s < length; s++) {
+                    result[out++] = segment[s];
+                }
+            }
+        }
+        return result;
+    }
+}
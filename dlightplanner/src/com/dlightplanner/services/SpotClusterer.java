@@ -0,0 +1,214 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Hotel;
+import com.dlightplanner.models.TouristSpot;
+import com.dlightplanner.utils.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Spot Clusterer - splits a trip's spots into one compact group per day.
+ *
+ * Capacity-constrained k-means over spot coordinates: every day has the same hour budget
+ * (total hours / days plus the longest single visit, so every spot always fits somewhere).
+ * Each round assigns spots in order of regret - how much worse their second-closest day
+ * is than their closest - to the nearest day that still has room, then moves each day's
+ * centre to the mean of its spots. Centres are seeded by farthest-point sampling starting
+ * next to the hotel, so the result is deterministic and day 1 stays near the hotel.
+ */
+public class SpotClusterer {
+    private static final int MAX_ITERATIONS = 25;
+
+    /**
+     * Group spots into days
+     * @param hours time one visit takes (including travel), in hours
+     * @param minSpotsPerDay every day is topped up to this many spots while others have more
+     * @return exactly {@code days} lists; together they contain every spot once
+     */
+    public List<List<TouristSpot>> cluster(List<TouristSpot> spots, Hotel hotel, int days,
+                                           ToDoubleFunction<TouristSpot> hours, int minSpotsPerDay) {
+        List<List<TouristSpot>> groups = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            groups.add(new ArrayList<>());
+        }
+        if (spots == null || spots.isEmpty() || days < 1) {
+            return groups;
+        }
+
+        int n = spots.size();
+        int k = Math.min(days, n);
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        double[] cost = new double[n];
+        double totalHours = 0;
+        double longestVisit = 0;
+        for (int i = 0; i < n; i++) {
+            TouristSpot spot = spots.get(i);
+            lat[i] = spot.getLatitude();
+            lon[i] = spot.getLongitude();
+            cost[i] = hours.applyAsDouble(spot);
+            totalHours += cost[i];
+            longestVisit = Math.max(longestVisit, cost[i]);
+        }
+        double capacity = totalHours / k + longestVisit;
+
+        double[] centreLat = new double[k];
+        double[] centreLon = new double[k];
+        seedCentres(lat, lon, hotel, centreLat, centreLon);
+
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        double[] distance = new double[n * k];
+        Integer[] order = new Integer[n];
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double[] regret = new double[n];
+            for (int i = 0; i < n; i++) {
+                double best = Double.MAX_VALUE, second = Double.MAX_VALUE;
+                for (int c = 0; c < k; c++) {
+                    double km = GeoUtils.distanceKm(lat[i], lon[i], centreLat[c], centreLon[c]);
+                    distance[i * k + c] = km;
+                    if (km < best) {
+                        second = best;
+                        best = km;
+                    } else if (km < second) {
+                        second = km;
+                    }
+                }
+                regret[i] = k > 1 ? second - best : 0;
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -regret[i]).thenComparingInt(i -> i));
+
+            double[] load = new double[k];
+            boolean changed = false;
+            for (int i : order) {
+                int target = -1;
+                for (int c = 0; c < k; c++) {
+                    if (load[c] + cost[i] <= capacity + 1e-9
+                            && (target < 0 || distance[i * k + c] < distance[i * k + target])) {
+                        target = c;
+                    }
+                }
+                if (target < 0) {
+                    target = leastLoaded(load); // unreachable given the capacity choice; kept as a guard
+                }
+                load[target] += cost[i];
+                if (assignment[i] != target) {
+                    assignment[i] = target;
+                    changed = true;
+                }
+            }
+
+            if (!changed) {
+                break;
+            }
+            moveCentres(lat, lon, assignment, centreLat, centreLon);
+        }
+
+        for (int i = 0; i < n; i++) {
+            groups.get(assignment[i]).add(spots.get(i));
+        }
+        topUp(groups, k, minSpotsPerDay, centreLat, centreLon);
+        return groups;
+    }
+
+    /**
+     * Farthest-point seeding: the first centre is the spot nearest the hotel (or the first spot),
+     * each next centre is the spot farthest from all centres so far
+     */
+    private static void seedCentres(double[] lat, double[] lon, Hotel hotel, double[] centreLat, double[] centreLon) {
+        int n = lat.length;
+        int first = 0;
+        if (hotel != null && hotel.hasCoordinates()) {
+            double best = Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                double km = GeoUtils.distanceKm(hotel.getLatitude(), hotel.getLongitude(), lat[i], lon[i]);
+                if (km < best) {
+                    best = km;
+                    first = i;
+                }
+            }
+        }
+        double[] nearestCentre = new double[n];
+        Arrays.fill(nearestCentre, Double.MAX_VALUE);
+        int next = first;
+        for (int c = 0; c < centreLat.length; c++) {
+            centreLat[c] = lat[next];
+            centreLon[c] = lon[next];
+            int farthest = -1;
+            for (int i = 0; i < n; i++) {
+                nearestCentre[i] = Math.min(nearestCentre[i], GeoUtils.distanceKm(lat[i], lon[i], lat[next], lon[next]));
+                if (farthest < 0 || nearestCentre[i] > nearestCentre[farthest]) {
+                    farthest = i;
+                }
+            }
+            next = farthest;
+        }
+    }
+
+    private static void moveCentres(double[] lat, double[] lon, int[] assignment, double[] centreLat, double[] centreLon) {
+        int k = centreLat.length;
+        double[] sumLat = new double[k];
+        double[] sumLon = new double[k];
+        int[] count = new int[k];
+        for (int i = 0; i < lat.length; i++) {
+            sumLat[assignment[i]] += lat[i];
+            sumLon[assignment[i]] += lon[i];
+            count[assignment[i]]++;
+        }
+        for (int c = 0; c < k; c++) {
+            if (count[c] > 0) {
+                centreLat[c] = sumLat[c] / count[c];
+                centreLon[c] = sumLon[c] / count[c];
+            }
+        }
+    }
+
+    private static int leastLoaded(double[] load) {
+        int least = 0;
+        for (int c = 1; c < load.length; c++) {
+            if (load[c] < load[least]) {
+                least = c;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * Give days below the minimum the closest spot from the largest day that can spare one
+     */
+    private static void topUp(List<List<TouristSpot>> groups, int k, int minSpotsPerDay,
+                              double[] centreLat, double[] centreLon) {
+        for (int c = 0; c < k; c++) {
+            List<TouristSpot> day = groups.get(c);
+            while (day.size() < minSpotsPerDay) {
+                List<TouristSpot> donor = null;
+                for (int d = 0; d < k; d++) {
+                    List<TouristSpot> candidate = groups.get(d);
+                    if (candidate.size() > minSpotsPerDay && (donor == null || candidate.size() > donor.size())) {
+                        donor = candidate;
+                    }
+                }
+                if (donor == null) {
+                    break;
+                }
+                TouristSpot closest = null;
+                double best = Double.MAX_VALUE;
+                for (TouristSpot spot : donor) {
+                    double km = GeoUtils.distanceKm(spot.getLatitude(), spot.getLongitude(), centreLat[c], centreLon[c]);
+                    if (km < best) {
+                        best = km;
+                        closest = spot;
+                    }
+                }
+                donor.remove(closest);
+                day.add(closest);
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.TouristSpot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Spot Time Windows - a tourist spot's openingHours, closedDays and peakHours parsed
+ * once into bit masks over the day's 96 quarter-hour slots (two longs per mask) and a
+ * 7-bit closed-day mask.
+ *
+ * Understands "24 Hours", one or more "9:00 AM - 5:00 PM" ranges separated by commas,
+ * ranges past midnight, "(Summer)" / "(Winter)" variants (summer is April-September)
+ * and ranges limited to named days, e.g. "(Wednesday & Saturday)". Anything it cannot
+ * read is treated as open all day, so bad data never hides a spot.
+ */
+public final class SpotTimeWindows {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final Pattern RANGE = Pattern.compile(
+            "(\\d{1,2}):(\\d{2})\\s*([AP]M)\\s*-\\s*(\\d{1,2}):(\\d{2})\\s*([AP]M)", Pattern.CASE_INSENSITIVE);
+    private static final Map<Integer, SpotTimeWindows> CACHE = new ConcurrentHashMap<>();
+
+    private static final int ALL_DAYS = 0x7F;
+    private static final SpotTimeWindows ALWAYS_OPEN = new SpotTimeWindows(
+            new long[]{-1L, -1L}, new long[]{-1L, -1L}, 0, new long[2]);
+
+    private final long[] summerOpen;
+    private final long[] winterOpen;
+    private final int closedDays; // bit (dayOfWeek - 1)
+    private final long[] peak;
+
+    private SpotTimeWindows(long[] summerOpen, long[] winterOpen, int closedDays, long[] peak) {
+        this.summerOpen = summerOpen;
+        this.winterOpen = winterOpen;
+        this.closedDays = closedDays;
+        this.peak = peak;
+    }
+
+    /**
+     * Parsed windows for a spot; parsed on first use and cached by spot id
+     */
+    public static SpotTimeWindows of(TouristSpot spot) {
+        if (spot == null) {
+            return ALWAYS_OPEN;
+        }
+        return CACHE.computeIfAbsent(spot.getId(), id -> parse(spot));
+    }
+
+    static SpotTimeWindows parse(TouristSpot spot) {
+        long[] summer = new long[2];
+        long[] winter = new long[2];
+        int openDays = ALL_DAYS;
+
+        String hours = spot.getOpeningHours();
+        if (hours == null || hours.isBlank() || hours.toLowerCase(Locale.ROOT).contains("24 hours")) {
+            summer = new long[]{-1L, -1L};
+            winter = new long[]{-1L, -1L};
+        } else {
+            boolean parsedAny = false;
+            for (String part : hours.split(",")) {
+                Matcher m = RANGE.matcher(part);
+                if (!m.find()) {
+                    continue;
+                }
+                parsedAny = true;
+                int start = slotOf(m.group(1), m.group(2), m.group(3), false);
+                int end = slotOf(m.group(4), m.group(5), m.group(6), true);
+                String note = part.substring(m.end()).toLowerCase(Locale.ROOT);
+
+                boolean winterOnly = note.contains("winter");
+                boolean summerOnly = note.contains("summer");
+                if (!winterOnly) setRange(summer, start, end);
+                if (!summerOnly) setRange(winter, start, end);
+
+                int days = dayMask(note);
+                if (days != 0) {
+                    openDays = days;
+                }
+            }
+            if (!parsedAny) {
+                summer = new long[]{-1L, -1L};
+                winter = new long[]{-1L, -1L};
+            }
+        }
+
+        int closed = dayMask(spot.getClosedDays() != null ? spot.getClosedDays().toLowerCase(Locale.ROOT) : "");
+        closed |= ALL_DAYS & ~openDays;
+
+        long[] peak = new long[2];
+        if (spot.getPeakHours() != null) {
+            Matcher m = RANGE.matcher(spot.getPeakHours());
+            while (m.find()) {
+                setRange(peak, slotOf(m.group(1), m.group(2), m.group(3), false),
+                        slotOf(m.group(4), m.group(5), m.group(6), true));
+            }
+        }
+        return new SpotTimeWindows(summer, winter, closed, peak);
+    }
+
+    /**
+     * Slot index of "h:mm AM/PM"; end times round up to the next slot boundary
+     */
+    private static int slotOf(String hour, String minute, String meridiem, boolean roundUp) {
+        int h = Integer.parseInt(hour) % 12;
+        if (meridiem.equalsIgnoreCase("PM")) {
+            h += 12;
+        }
+        int minutes = h * 60 + Integer.parseInt(minute);
+        return roundUp ? (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES : minutes / SLOT_MINUTES;
+    }
+
+    private static int dayMask(String text) {
+        int mask = 0;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (text.contains(day.name().toLowerCase(Locale.ROOT))) {
+                mask |= 1 << (day.getValue() - 1);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Set slots [start, end); a range ending at or before its start runs past midnight
+     */
+    private static void setRange(long[] mask, int start, int end) {
+        if (end <= start) {
+            setRange(mask, start, SLOTS_PER_DAY);
+            setRange(mask, 0, end);
+            return;
+        }
+        for (int slot = start; slot < end; slot++) {
+            mask[slot >> 6] |= 1L << (slot & 63);
+        }
+    }
+
+    private long[] openMask(LocalDate date) {
+        int month = date.getMonthValue();
+        return month >= 4 && month <= 9 ? summerOpen : winterOpen;
+    }
+
+    public boolean isClosedOn(LocalDate date) {
+        return (closedDays & (1 << (date.getDayOfWeek().getValue() - 1))) != 0;
+    }
+
+    /**
+     * True if the spot is open on that date for every slot in [startSlot, endSlot)
+     */
+    public boolean isOpen(LocalDate date, int startSlot, int endSlot) {
+        if (isClosedOn(date) || startSlot < 0 || endSlot > SLOTS_PER_DAY) {
+            return false;
+        }
+        long[] open = openMask(date);
+        for (int slot = startSlot; slot < endSlot; slot++) {
+            if ((open[slot >> 6] & (1L << (slot & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Earliest start slot >= fromSlot at which a visit of lengthSlots fits inside the
+     * opening hours and ends by latestEndSlot, or -1
+     */
+    public int earliestStart(LocalDate date, int fromSlot, int lengthSlots, int latestEndSlot) {
+        if (isClosedOn(date)) {
+            return -1;
+        }
+        long[] open = openMask(date);
+        int run = 0;
+        for (int slot = Math.max(0, fromSlot); slot < Math.min(SLOTS_PER_DAY, latestEndSlot); slot++) {
+            run = (open[slot >> 6] & (1L << (slot & 63))) != 0 ? run + 1 : 0;
+            if (run >= lengthSlots) {
+                return slot - lengthSlots + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Number of peak-hour slots in [startSlot, endSlot)
+     */
+    public int peakSlots(int startSlot, int endSlot) {
+        int count = 0;
+        for (int slot = Math.max(0, startSlot); slot < Math.min(SLOTS_PER_DAY, endSlot); slot++) {
+            if ((peak[slot >> 6] & (1L << (slot & 63))) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isPeak(LocalTime time) {
+        int slot = (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+        return (peak[slot >> 6] & (1L << (slot & 63))) != 0;
+    }
+}
@@ -1,24 +1,27 @@
 package com.dlightplanner.services;
 
 import com.dlightplanner.models.TouristSpot;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.dlightplanner.utils.IdIndex;
 
-import java.io.FileReader;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Tourist Spot Service - loads tourist spots from JSON file
  */
 public class TouristSpotService {
     private List<TouristSpot> touristSpots;
+    private IdIndex<TouristSpot> spotsById;
+    private Map<String, List<TouristSpot>> spotsByDestination;
     
     public TouristSpotService() {
-        touristSpots = new ArrayList<>();
+        setTouristSpots(new ArrayList<>());
     }
     
     /**
@@ -27,42 +30,109 @@ public class TouristSpotService {
      * @return List of tourist spots
      */
     public List<TouristSpot> loadTouristSpotsFromJson(String jsonPath) {
-        Gson gson = new Gson();
-        try (FileReader reader = new FileReader(jsonPath)) {
-            Type spotListType = new TypeToken<List<TouristSpot>>() {}.getType();
-            touristSpots = gson.fromJson(reader, spotListType);
-            if (touristSpots == null) {
-                touristSpots = new ArrayList<>();
-            }
+        try {
+            List<TouristSpot> loaded = new JsonStreamLoader().readAll(jsonPath, TouristSpot.class);
+            setTouristSpots(loaded);
             return touristSpots;
         } catch (IOException e) {
             e.printStackTrace();
             return new ArrayList<>();
         }
     }
-    
+
+    /**
+     * Use an already-loaded spot list
+     */
+    public void setTouristSpots(List<TouristSpot> loaded) {
+        int[] ids = new int[loaded.size()];
+        String[] destinationCodes = new String[loaded.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = loaded.get(i).getId();
+            destinationCodes[i] = loaded.get(i).getDestinationCode();
+        }
+        setTouristSpots(loaded, ids, destinationCodes);
+    }
+
+    /**
+     * Use a spot list whose ids and destination codes are already known (e.g. read from
+     * the catalog snapshot records), so indexing does not read the spots themselves
+     * @param ids id of each spot, in list order
+     * @param destinationCodes destination code of each spot, in list order
+     */
+    public void setTouristSpots(List<TouristSpot> loaded, int[] ids, String[] destinationCodes) {
+        touristSpots = Collections.unmodifiableList(loaded);
+        buildIndexes(ids, destinationCodes);
+    }
+
     public List<TouristSpot> getTouristSpots() {
         return touristSpots;
     }
     
+    /**
+     * Build the id and destination-code indexes over the loaded spots
+     */
+    private void buildIndexes(int[] ids, String[] destinationCodes) {
+        Map<String, List<Integer>> positionsByDestination = new HashMap<>();
+        for (int i = 0; i < destinationCodes.length; i++) {
+            if (destinationCodes[i] != null) {
+                positionsByDestination.computeIfAbsent(normalizeCode(destinationCodes[i]), k -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, List<TouristSpot>> byDestination = new HashMap<>();
+        positionsByDestination.forEach((code, positions) -> byDestination.put(code,
+                new SpotsAt(touristSpots, positions.stream().mapToInt(Integer::intValue).toArray())));
+
+        spotsByDestination = byDestination;
+        spotsById = new IdIndex<>(touristSpots, ids);
+    }
+
+    /**
+     * Read-only view of the spots at the given positions of the spot list
+     */
+    private static class SpotsAt extends AbstractList<TouristSpot> {
+        private final List<TouristSpot> spots;
+        private final int[] positions;
+
+        SpotsAt(List<TouristSpot> spots, int[] positions) {
+            this.spots = spots;
+            this.positions = positions;
+        }
+
+        @Override
+        public TouristSpot get(int index) {
+            return spots.get(positions[index]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+    
     /**
      * Get tourist spots filtered by destination code (airport code)
+     * @return an unmodifiable list, empty if the code has no spots
      */
     public List<TouristSpot> getTouristSpotsByDestination(String destinationCode) {
-        return touristSpots.stream()
-                .filter(spot -> spot.getDestinationCode() != null && 
-                               spot.getDestinationCode().equalsIgnoreCase(destinationCode))
-                .collect(Collectors.toList());
+        if (destinationCode == null) {
+            return Collections.emptyList();
+        }
+        List<TouristSpot> spots = spotsByDestination.get(destinationCode);
+        if (spots == null) {
+            spots = spotsByDestination.getOrDefault(normalizeCode(destinationCode), Collections.emptyList());
+        }
+        return spots;
     }
     
     /**
      * Get tourist spot by ID
      */
     public TouristSpot getTouristSpotById(int id) {
-        return touristSpots.stream()
-                .filter(spot -> spot.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return spotsById.get(id);
+    }
+
+    private static String normalizeCode(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
     }
 }
 
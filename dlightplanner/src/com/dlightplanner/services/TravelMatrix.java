@@ -0,0 +1,206 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.TouristSpot;
+import com.dlightplanner.services.ItineraryGenerator.TravelInfo;
+import com.dlightplanner.utils.GeoUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Travel Matrix - travel time, distance and cost between every pair of tourist spots
+ * of a destination, computed once and shared by every page.
+ *
+ * A destination's table is built the first time one of its pairs is asked for, from the
+ * destination's spots in TouristSpotService, and holds the TravelInfo and the scheduling
+ * travel time (with buffer) of every ordered pair. Pairs that are not in a table - spots
+ * from different destinations, or spots unknown to the catalog - are computed directly.
+ * Hits and misses are counted so the cache can be checked with getStats().
+ */
+public class TravelMatrix {
+    private static final double AUTO_KMPH = 30.0;    // Auto/Taxi
+    private static final double METRO_KMPH = 20.0;   // Metro/Bus
+    private static final double WALKING_KMPH = 5.0;
+    private static final int AUTO_COST_PER_KM = 12;  // ₹12 per km
+    private static final int TRAVEL_BUFFER_MINUTES = 30; // Minimum buffer between spots
+
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile TouristSpotService touristSpotService;
+
+    public TravelMatrix() {
+    }
+
+    public TravelMatrix(TouristSpotService touristSpotService) {
+        this.touristSpotService = touristSpotService;
+    }
+
+    public void setTouristSpotService(TouristSpotService touristSpotService) {
+        this.touristSpotService = touristSpotService;
+        tables.clear();
+    }
+
+    /**
+     * Travel time in minutes used for scheduling: auto time plus a buffer,
+     * rounded to the nearest 15 minutes
+     */
+    public int getTravelTimeMinutes(TouristSpot from, TouristSpot to) {
+        Table table = tableFor(from, to);
+        if (table != null) {
+            int i = table.indexOf(from);
+            int j = table.indexOf(to);
+            if (i >= 0 && j >= 0) {
+                hits.increment();
+                return table.travelMinutes[i * table.size + j];
+            }
+        }
+        misses.increment();
+        return computeTravelTimeMinutes(distanceKm(from, to));
+    }
+
+    /**
+     * Travel options between two spots, times rounded to the nearest 15 minutes
+     */
+    public TravelInfo getTravelInfo(TouristSpot from, TouristSpot to) {
+        Table table = tableFor(from, to);
+        if (table != null) {
+            int i = table.indexOf(from);
+            int j = table.indexOf(to);
+            if (i >= 0 && j >= 0) {
+                hits.increment();
+                return table.travelInfo[i * table.size + j];
+            }
+        }
+        misses.increment();
+        return computeTravelInfo(distanceKm(from, to));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Share of lookups served from a table, 0 when nothing was looked up yet
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public String getStats() {
+        return String.format("Travel matrix: %d destinations, %d hits, %d misses (%.1f%% hit rate)",
+                tables.size(), getHits(), getMisses(), getHitRate() * 100);
+    }
+
+    private Table tableFor(TouristSpot from, TouristSpot to) {
+        TouristSpotService service = touristSpotService;
+        String code = from.getDestinationCode();
+        if (service == null || code == null || !code.equals(to.getDestinationCode())) {
+            return null;
+        }
+        Table table = tables.get(code);
+        return table != null ? table
+                : tables.computeIfAbsent(code, c -> new Table(service.getTouristSpotsByDestination(c)));
+    }
+
+    private static double distanceKm(TouristSpot from, TouristSpot to) {
+        return GeoUtils.distanceKm(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+
+    private static int computeTravelTimeMinutes(double distanceKm) {
+        int minutes = (int) Math.ceil((distanceKm / AUTO_KMPH) * 60);
+        minutes = Math.max(15, minutes + TRAVEL_BUFFER_MINUTES);
+        return roundToNearest15(minutes);
+    }
+
+    private static TravelInfo computeTravelInfo(double distanceKm) {
+        int autoMinutes = Math.max(15, roundToNearest15((int) Math.ceil((distanceKm / AUTO_KMPH) * 60)));
+        int metroMinutes = Math.max(15, roundToNearest15((int) Math.ceil((distanceKm / METRO_KMPH) * 60)));
+        int walkingMinutes = Math.max(15, roundToNearest15((int) Math.ceil((distanceKm / WALKING_KMPH) * 60)));
+
+        int autoCost = (int) Math.ceil(distanceKm * AUTO_COST_PER_KM);
+        int metroCost = distanceKm < 5 ? 20 : 40; // Fixed fare
+        int walkingCost = 0;
+
+        return new TravelInfo(distanceKm, autoMinutes, metroMinutes, walkingMinutes,
+                autoCost, metroCost, walkingCost);
+    }
+
+    /**
+     * Round minutes to nearest 15-minute interval (00, 15, 30, 45)
+     */
+    static int roundToNearest15(int minutes) {
+        int remainder = minutes % 15;
+        if (remainder == 0) {
+            return minutes;
+        }
+        return remainder <= 7 ? minutes - remainder : minutes + (15 - remainder);
+    }
+
+    /**
+     * All pairs of one destination's spots, row-major by position in the spot list
+     */
+    private static final class Table {
+        final int size;
+        final TouristSpot[] spots;
+        final int[] indexById; // spot id -> position, -1 if absent
+        final int[] travelMinutes;
+        final TravelInfo[] travelInfo;
+
+        Table(List<TouristSpot> destinationSpots) {
+            size = destinationSpots.size();
+            spots = destinationSpots.toArray(new TouristSpot[0]);
+            int maxId = -1;
+            for (TouristSpot spot : spots) {
+                maxId = Math.max(maxId, spot.getId());
+            }
+            indexById = new int[maxId + 1];
+            Arrays.fill(indexById, -1);
+            for (int i = 0; i < size; i++) {
+                if (spots[i].getId() >= 0) {
+                    indexById[spots[i].getId()] = i;
+                }
+            }
+            travelMinutes = new int[size * size];
+            travelInfo = new TravelInfo[size * size];
+            for (int i = 0; i < size; i++) {
+                for (int j = i; j < size; j++) {
+                    double km = distanceKm(spots[i], spots[j]);
+                    int minutes = computeTravelTimeMinutes(km);
+                    TravelInfo info = computeTravelInfo(km);
+                    travelMinutes[i * size + j] = minutes;
+                    travelMinutes[j * size + i] = minutes;
+                    travelInfo[i * size + j] = info;
+                    travelInfo[j * size + i] = info; // symmetric: same distance both ways
+                }
+            }
+        }
+
+        /**
+         * Position of the spot in this table, or -1 if it is not the catalog's spot
+         * (unknown id, or a copy with different coordinates)
+         */
+        int indexOf(TouristSpot spot) {
+            int id = spot.getId();
+            int index = id >= 0 && id < indexById.length ? indexById[id] : -1;
+            if (index < 0) {
+                return -1;
+            }
+            TouristSpot known = spots[index];
+            if (known != spot && (known.getLatitude() != spot.getLatitude()
+                    || known.getLongitude() != spot.getLongitude())) {
+                return -1;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.dlightplanner.services;
+
+import com.dlightplanner.models.Hotel;
+import com.dlightplanner.models.MultiCityTripRequest;
+import com.dlightplanner.models.MultiCityTripRequest.CityLeg;
+import com.dlightplanner.models.MultiCityTripRequest.FlightLeg;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Trip Date Optimizer - finds the cheapest flight + hotel dates for a multi-city trip
+ * when every travel date may move by up to +/- flexDays.
+ *
+ * Stage j of the trip is the date of flight j (into city j, or home for the return leg).
+ * A dynamic program over (stage, date) keeps the topN cheapest partial trips for every
+ * state; the nights spent in a city are the gap between consecutive stage dates and must
+ * stay within [minNights, maxNights]. Without a return flight the last stage is the day
+ * the traveller leaves the last city, which has no flight cost. The trip never starts
+ * before today.
+ */
+public class TripDateOptimizer {
+
+    private final FlightService flightService;
+    private final ToDoubleFunction<String> nightlyHotelRate;
+
+    /**
+     * @param nightlyHotelRate price of one night in the given destination (airport code)
+     */
+    public TripDateOptimizer(FlightService flightService, ToDoubleFunction<String> nightlyHotelRate) {
+        this.flightService = flightService;
+        this.nightlyHotelRate = nightlyHotelRate;
+    }
+
+    /**
+     * Price hotels at the cheapest hotel offered for each destination
+     */
+    public TripDateOptimizer(FlightService flightService, HotelService hotelService) {
+        this(flightService, code -> hotelService.getHotelsByDestination(code).stream()
+                .mapToDouble(Hotel::getPricePerNight)
+                .min()
+                .orElse(0));
+    }
+
+    /**
+     * Find the cheapest date combinations for a trip
+     * @param request trip with the preferred dates
+     * @param flexDays how far each date may move either way
+     * @param minNights fewest nights allowed in each city
+     * @param maxNights most nights allowed in each city
+     * @param topN number of itineraries to return
+     * @param budgetMillis soft latency budget; once spent, remaining stages keep only the best path per date
+     * @return up to topN itineraries, cheapest first (empty if no dates satisfy the constraints)
+     */
+    public List<OptimizedTrip> optimize(MultiCityTripRequest request, int flexDays,
+                                        int minNights, int maxNights, int topN, long budgetMillis) {
+        int[] min = new int[request.getCityLegs().size()];
+        int[] max = new int[min.length];
+        Arrays.fill(min, minNights);
+        Arrays.fill(max, maxNights);
+        return optimize(request, flexDays, min, max, topN, budgetMillis);
+    }
+
+    /**
+     * Find the cheapest date combinations that keep every stay within flexDays nights of
+     * the request's own stay in that city (and at least one night)
+     */
+    public List<OptimizedTrip> optimize(MultiCityTripRequest request, int flexDays, int topN, long budgetMillis) {
+        List<CityLeg> cities = request.getCityLegs();
+        int[] min = new int[cities.size()];
+        int[] max = new int[cities.size()];
+        for (int i = 0; i < cities.size(); i++) {
+            CityLeg city = cities.get(i);
+            LocalDate leave = i + 1 < cities.size() ? cities.get(i + 1).getArrivalDate()
+                    : request.isReturnToOrigin() && request.getReturnDate() != null ? request.getReturnDate()
+                    : city.getDepartureDate() != null ? city.getDepartureDate() : city.getArrivalDate().plusDays(1);
+            int nights = (int) Math.max(1, ChronoUnit.DAYS.between(city.getArrivalDate(), leave));
+            min[i] = Math.max(1, nights - flexDays);
+            max[i] = nights + flexDays;
+        }
+        return optimize(request, flexDays, min, max, topN, budgetMillis);
+    }
+
+    private List<OptimizedTrip> optimize(MultiCityTripRequest request, int flexDays,
+                                         int[] minNights, int[] maxNights, int topN, long budgetMillis) {
+        List<CityLeg> cities = request.getCityLegs();
+        if (cities.isEmpty() || topN < 1) {
+            return Collections.emptyList();
+        }
+
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        double travelerUnits = request.getAdults() + request.getChildren() * 0.75 + request.getInfants() * 0.1;
+
+        // Stage routes and preferred dates
+        List<FlightLeg> flightLegs = request.getFlightLegs();
+        int stageCount = cities.size() + 1;
+        String[] from = new String[stageCount];
+        String[] to = new String[stageCount];
+        LocalDate[] preferred = new LocalDate[stageCount];
+        for (int j = 0; j < cities.size(); j++) {
+            FlightLeg leg = flightLegs.get(j);
+            from[j] = leg.getFromCode();
+            to[j] = leg.getToCode();
+            preferred[j] = leg.getDate();
+        }
+        boolean returnFlight = flightLegs.size() > cities.size();
+        int last = stageCount - 1;
+        if (returnFlight) {
+            FlightLeg leg = flightLegs.get(last);
+            from[last] = leg.getFromCode();
+            to[last] = leg.getToCode();
+            preferred[last] = leg.getDate();
+        } else {
+            CityLeg lastCity = cities.get(cities.size() - 1);
+            preferred[last] = lastCity.getDepartureDate() != null ? lastCity.getDepartureDate() : lastCity.getArrivalDate();
+        }
+
+        Map<String, Double> hotelRates = new HashMap<>();
+        Map<String, double[]> fareLookups = new HashMap<>();
+        int width = 2 * flexDays + 1;
+
+        // paths[d] = cheapest partial trips ending on preferred[stage] + (d - flexDays)
+        LocalDate today = LocalDate.now();
+        List<List<Path>> paths = new ArrayList<>(width);
+        for (int d = 0; d < width; d++) {
+            LocalDate date = preferred[0].plusDays(d - flexDays);
+            double fare = date.isBefore(today) ? 0 : cheapestFare(fareLookups, from[0], to[0], date);
+            List<Path> start = new ArrayList<>(1);
+            if (fare > 0) {
+                start.add(new Path(null, date, fare * travelerUnits, 0));
+            }
+            paths.add(start);
+        }
+
+        for (int stage = 1; stage < stageCount; stage++) {
+            int keep = System.nanoTime() > deadline ? 1 : topN;
+            String city = cities.get(stage - 1).getDestinationCode();
+            double nightly = hotelRates.computeIfAbsent(city, nightlyHotelRate::applyAsDouble);
+            boolean hasFlight = stage < last || returnFlight;
+
+            List<List<Path>> next = new ArrayList<>(width);
+            for (int d = 0; d < width; d++) {
+                LocalDate date = preferred[stage].plusDays(d - flexDays);
+                double fare = hasFlight ? cheapestFare(fareLookups, from[stage], to[stage], date) : 0;
+                List<Path> best = new ArrayList<>();
+                if (!hasFlight || fare > 0) {
+                    for (List<Path> previous : paths) {
+                        for (Path p : previous) {
+                            long nights = ChronoUnit.DAYS.between(p.date, date);
+                            if (nights < minNights[stage - 1] || nights > maxNights[stage - 1]) {
+                                continue;
+                            }
+                            double hotelCost = nightly * nights;
+                            Path candidate = new Path(p, date,
+                                    p.flightCost + fare * travelerUnits, p.hotelCost + hotelCost);
+                            insertBounded(best, candidate, keep);
+                        }
+                    }
+                }
+                next.add(best);
+            }
+            paths = next;
+        }
+
+        List<Path> finished = new ArrayList<>();
+        for (List<Path> list : paths) {
+            for (Path p : list) {
+                insertBounded(finished, p, topN);
+            }
+        }
+
+        List<OptimizedTrip> trips = new ArrayList<>(finished.size());
+        for (Path p : finished) {
+            trips.add(toTrip(request, p, returnFlight));
+        }
+        return trips;
+    }
+
+    /**
+     * Cheapest fare for a route on a date, memoized per route and month for this run
+     */
+    private double cheapestFare(Map<String, double[]> fareLookups, String from, String to, LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        double[] calendar = fareLookups.computeIfAbsent(from + "|" + to + "|" + month,
+                k -> flightService.fareCalendar(from, to, month));
+        return calendar[date.getDayOfMonth() - 1];
+    }
+
+    private static void insertBounded(List<Path> best, Path candidate, int limit) {
+        if (best.size() == limit && best.get(limit - 1).total() <= candidate.total()) {
+            return;
+        }
+        int index = 0;
+        while (index < best.size() && best.get(index).total() <= candidate.total()) {
+            index++;
+        }
+        best.add(index, candidate);
+        if (best.size() > limit) {
+            best.remove(best.size() - 1);
+        }
+    }
+
+    private static OptimizedTrip toTrip(MultiCityTripRequest request, Path path, boolean returnFlight) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (Path p = path; p != null; p = p.previous) {
+            dates.add(p.date);
+        }
+        Collections.reverse(dates);
+
+        List<CityLeg> cities = request.getCityLegs();
+        List<CityLeg> legs = new ArrayList<>(cities.size());
+        for (int i = 0; i < cities.size(); i++) {
+            legs.add(new CityLeg(cities.get(i).getDestinationCode(), dates.get(i), dates.get(i + 1)));
+        }
+
+        MultiCityTripRequest optimized = new MultiCityTripRequest(
+                request.getOriginCode(),
+                legs,
+                request.isReturnToOrigin(),
+                returnFlight ? dates.get(dates.size() - 1) : request.getReturnDate(),
+                request.getAdults(),
+                request.getChildren(),
+                request.getInfants());
+        return new OptimizedTrip(optimized, path.flightCost, path.hotelCost);
+    }
+
+    /**
+     * Partial trip: the date chosen for this stage plus a link to the earlier stages
+     */
+    private static class Path {
+        final Path previous;
+        final LocalDate date;
+        final double flightCost;
+        final double hotelCost;
+
+        Path(Path previous, LocalDate date, double flightCost, double hotelCost) {
+            this.previous = previous;
+            this.date = date;
+            this.flightCost = flightCost;
+            this.hotelCost = hotelCost;
+        }
+
+        double total() {
+            return flightCost + hotelCost;
+        }
+    }
+
+    /**
+     * One optimized itinerary: the trip with the chosen dates and its estimated cost
+     */
+    public static class OptimizedTrip {
+        private final MultiCityTripRequest request;
+        private final double flightCost;
+        private final double hotelCost;
+
+        public OptimizedTrip(MultiCityTripRequest request, double flightCost, double hotelCost) {
+            this.request = request;
+            this.flightCost = flightCost;
+            this.hotelCost = hotelCost;
+        }
+
+        public MultiCityTripRequest getRequest() { return request; }
+        public double getFlightCost() { return flightCost; }
+        public double getHotelCost() { return hotelCost; }
+        public double getTotalCost() { return flightCost + hotelCost; }
+    }
+}
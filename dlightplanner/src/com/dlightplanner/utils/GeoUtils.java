@@ -0,0 +1,30 @@
+package com.dlightplanner.utils;
+
+/**
+ * Geo Utils - great-circle distances between coordinates
+ */
+public class GeoUtils {
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    private GeoUtils() {
+    }
+
+    /**
+     * Great-circle (haversine) distance in km between two latitude/longitude points in degrees
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lon1 = Math.toRadians(longitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double lon2 = Math.toRadians(longitude2);
+
+        double dLat = lat2 - lat1;
+        double dLon = lon2 - lon1;
+
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dLon / 2), 2);
+
+        double c = 2 * Math.asin(Math.sqrt(a));
+        return EARTH_RADIUS_KM * c;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dlightplanner.utils;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only lookup table keyed by a primitive int id.
+ * Uses open addressing over parallel arrays so get() never boxes the key.
+ * Stores positions in the item list, so it can be built from the ids alone and
+ * items are only read from the list when looked up.
+ */
+public class IdIndex<T> {
+    private final List<T> items;
+    private final int[] keys;
+    private final int[] positions;
+    private final boolean[] used;
+    private final int mask;
+    private int size;
+
+    public IdIndex(List<T> items, ToIntFunction<T> idOf) {
+        this(items, idsOf(items, idOf));
+    }
+
+    /**
+     * @param ids id of each item, in list order
+     */
+    public IdIndex(List<T> items, int[] ids) {
+        this.items = items;
+
+        int capacity = Integer.highestOneBit(Math.max(ids.length * 2, 2) - 1) << 1;
+        keys = new int[capacity];
+        positions = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+
+        for (int i = 0; i < ids.length; i++) {
+            put(ids[i], i);
+        }
+    }
+
+    private static <T> int[] idsOf(List<T> items, ToIntFunction<T> idOf) {
+        int[] ids = new int[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idOf.applyAsInt(items.get(i));
+        }
+        return ids;
+    }
+
+    private void put(int key, int position) {
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return; // first occurrence wins, same as a linear scan
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        positions[slot] = position;
+        size++;
+    }
+
+    /**
+     * Get the item with the given id
+     * @return the item, or null if no item has that id
+     */
+    public T get(int key) {
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return items.get(positions[slot]);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,432 @@
+package com.dlightplanner.utils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Image Utils - decodes and scales card images off the EDT and keeps the scaled
+ * copies in a memory-bounded LRU cache, keyed by (path, width, height, fit).
+ *
+ * loadInto() shows a placeholder, loads the image on a small pool of background threads
+ * and sets the icon on the EDT when it is ready; a cached image is set straight away.
+ * Images come from the ThumbnailStore when it has the size; otherwise the source is read
+ * with ImageIO subsampling down to about twice the target size, scaled, and added to the
+ * store. Cache entries are soft references, so the GC can drop them under memory
+ * pressure, and the cache evicts the least recently used images once the scaled pixels
+ * pass MAX_CACHE_BYTES. Paths that could not be read are remembered so they are not
+ * retried on every page. getStats() reports hit rate and decode time.
+ */
+public final class ImageUtils {
+    public static final long MAX_CACHE_BYTES = 48L * 1024 * 1024;
+
+    private static final Color PLACEHOLDER_COLOR = new Color(235, 235, 235);
+    private static final String REQUEST_PROPERTY = "ImageUtils.request";
+
+    /**
+     * How the image is fitted into the requested size
+     */
+    public enum Fit {
+        /** Scale to exactly width x height */
+        STRETCH,
+        /** Keep the aspect ratio, as large as fits inside width x height */
+        CONTAIN
+    }
+
+    private static final Map<Key, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private static long cachedBytes;
+
+    private static final Map<Key, CompletableFuture<BufferedImage>> pending = new ConcurrentHashMap<>();
+    private static final Set<String> unreadable = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder storeLoads = new LongAdder();
+    private static final LongAdder decodes = new LongAdder();
+    private static final LongAdder decodeNanos = new LongAdder();
+    private static volatile long maxDecodeNanos;
+
+    private static final ExecutorService decoder = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())), new ThreadFactory());
+
+    private ImageUtils() {
+    }
+
+    /**
+     * Show the image at path in the label, scaled to width x height.
+     * onMissing (may be null) runs on the EDT if the image cannot be read.
+     */
+    public static void loadInto(JLabel label, String path, int width, int height, Runnable onMissing) {
+        loadInto(label, Collections.singletonList(path), width, height, Fit.STRETCH, onMissing);
+    }
+
+    /**
+     * Show the first readable image of candidates in the label. The image is cached under
+     * the first candidate, so callers should always pass the same list for the same image.
+     */
+    public static void loadInto(JLabel label, List<String> candidates, int width, int height,
+                                Fit fit, Runnable onMissing) {
+        if (candidates.isEmpty() || candidates.get(0) == null) {
+            showMissing(label, onMissing);
+            return;
+        }
+        Key key = new Key(candidates.get(0), width, height, fit);
+        label.putClientProperty(REQUEST_PROPERTY, key);
+
+        BufferedImage cached = getCached(key);
+        if (cached != null) {
+            label.setIcon(new ImageIcon(cached));
+            return;
+        }
+        if (unreadable.contains(key.path)) {
+            showMissing(label, onMissing);
+            return;
+        }
+
+        label.setIcon(new PlaceholderIcon(width, height));
+        request(key, candidates).whenComplete((image, error) -> SwingUtilities.invokeLater(() -> {
+            if (!key.equals(label.getClientProperty(REQUEST_PROPERTY))) {
+                return; // the label was given another image meanwhile
+            }
+            if (image != null) {
+                label.setIcon(new ImageIcon(image));
+            } else {
+                showMissing(label, onMissing);
+            }
+        }));
+    }
+
+    /**
+     * The scaled image; if it is not cached, decodes it on the decoder pool and blocks
+     * until it is ready, so call it off the EDT. Null if unreadable
+     */
+    public static BufferedImage getScaled(String path, int width, int height, Fit fit) {
+        Key key = new Key(path, width, height, fit);
+        BufferedImage cached = getCached(key);
+        if (cached != null || unreadable.contains(path)) {
+            return cached;
+        }
+        return request(key, Collections.singletonList(path)).join();
+    }
+
+    private static void showMissing(JLabel label, Runnable onMissing) {
+        label.setIcon(null);
+        if (onMissing != null) {
+            onMissing.run();
+        }
+    }
+
+    private static BufferedImage getCached(Key key) {
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            BufferedImage image = entry != null ? entry.image.get() : null;
+            if (image != null) {
+                hits.increment();
+                return image;
+            }
+            if (entry != null) {
+                cache.remove(key); // collected by the GC
+                cachedBytes -= entry.bytes;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Decode and scale on the pool; concurrent requests for one key share one decode
+     */
+    private static CompletableFuture<BufferedImage> request(Key key, List<String> candidates) {
+        CompletableFuture<BufferedImage> future = pending.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<BufferedImage> created = new CompletableFuture<>();
+        future = pending.putIfAbsent(key, created);
+        if (future != null) {
+            return future;
+        }
+        decoder.execute(() -> {
+            BufferedImage image = null;
+            try {
+                image = decodeScaled(key, candidates);
+            } catch (Exception | OutOfMemoryError e) {
+                System.err.println("Could not load image " + key.path + ": " + e.getMessage());
+            } finally {
+                if (image != null) {
+                    put(key, image);
+                } else {
+                    unreadable.add(key.path);
+                }
+                pending.remove(key);
+                created.complete(image);
+            }
+        });
+        return created;
+    }
+
+    private static BufferedImage decodeScaled(Key key, List<String> candidates) throws IOException {
+        long start = System.nanoTime();
+        ThumbnailStore store = ThumbnailStore.getDefault();
+        String variant = key.width + "x" + key.height + (key.fit == Fit.CONTAIN ? "-contain" : "");
+
+        String sourcePath = null;
+        byte[] sourceBytes = null;
+        BufferedImage source = null;
+        for (String candidate : candidates) {
+            if (candidate == null || !new File(candidate).isFile()) {
+                continue;
+            }
+            BufferedImage stored = store.load(candidate, variant);
+            if (stored != null) {
+                storeLoads.increment();
+                return stored;
+            }
+            byte[] bytes = Files.readAllBytes(Paths.get(candidate));
+            source = read(bytes, key.width, key.height);
+            if (source != null) {
+                sourcePath = candidate;
+                sourceBytes = bytes;
+                break;
+            }
+        }
+        if (source == null) {
+            return null;
+        }
+
+        int width = key.width;
+        int height = key.height;
+        if (key.fit == Fit.CONTAIN) {
+            double ratio = Math.min((double) width / source.getWidth(), (double) height / source.getHeight());
+            width = Math.max(1, (int) (source.getWidth() * ratio));
+            height = Math.max(1, (int) (source.getHeight() * ratio));
+        }
+        BufferedImage scaled = scale(source, width, height);
+        store.save(sourcePath, sourceBytes, variant, scaled);
+
+        long elapsed = System.nanoTime() - start;
+        decodes.increment();
+        decodeNanos.add(elapsed);
+        if (elapsed > maxDecodeNanos) {
+            maxDecodeNanos = elapsed;
+        }
+        return scaled;
+    }
+
+    /**
+     * Decode an image, skipping rows and columns while it stays at least twice the
+     * target size; falls back to the toolkit decoder for files ImageIO cannot read
+     */
+    static BufferedImage read(byte[] bytes, int width, int height) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in, true, true);
+                    int step = Math.max(1, Math.min(reader.getWidth(0) / (2 * width),
+                            reader.getHeight(0) / (2 * height)));
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    param.setSourceSubsampling(step, step, 0, 0);
+                    return reader.read(0, param);
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (Exception e) {
+            // e.g. CMYK JPEGs; the toolkit decoder below still reads those
+        }
+        ImageIcon icon = new ImageIcon(bytes);
+        if (icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(icon.getImage(), 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Halve with bilinear filtering until within 2x of the target, then draw at the
+     * target size; close to SCALE_SMOOTH quality at a fraction of its cost
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            if (w > width) {
+                w = Math.max(width, w / 2);
+            } else {
+                w = width;
+            }
+            if (h > height) {
+                h = Math.max(height, h / 2);
+            } else {
+                h = height;
+            }
+            BufferedImage step = new BufferedImage(w, h, type);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static void put(Key key, BufferedImage image) {
+        long bytes = (long) image.getWidth() * image.getHeight() * 4;
+        synchronized (cache) {
+            Entry previous = cache.put(key, new Entry(image, bytes));
+            if (previous != null) {
+                cachedBytes -= previous.bytes;
+            }
+            cachedBytes += bytes;
+            Iterator<Entry> eldest = cache.values().iterator();
+            while (cachedBytes > MAX_CACHE_BYTES && eldest.hasNext()) {
+                Entry entry = eldest.next();
+                if (entry.image.get() == image) {
+                    break; // never evict the image just added
+                }
+                cachedBytes -= entry.bytes;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Drop every cached image and forget unreadable paths
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+            cachedBytes = 0;
+        }
+        unreadable.clear();
+    }
+
+    /**
+     * Share of lookups served from the cache, 0 when nothing was looked up yet
+     */
+    public static double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public static String getStats() {
+        int size;
+        long bytes;
+        synchronized (cache) {
+            size = cache.size();
+            bytes = cachedBytes;
+        }
+        long count = decodes.sum();
+        return String.format("Images: %d cached (%.1f MB), %.1f%% hit rate, %d from thumbnails, "
+                        + "%d decoded in %.1f ms avg (max %.1f ms)",
+                size, bytes / (1024.0 * 1024.0), getHitRate() * 100, storeLoads.sum(), count,
+                count == 0 ? 0 : decodeNanos.sum() / 1e6 / count, maxDecodeNanos / 1e6);
+    }
+
+    private static final class Key {
+        final String path;
+        final int width;
+        final int height;
+        final Fit fit;
+
+        Key(String path, int width, int height, Fit fit) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.fit = fit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return width == other.width && height == other.height && fit == other.fit && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, width, height, fit);
+        }
+    }
+
+    private static final class Entry {
+        final SoftReference<BufferedImage> image;
+        final long bytes;
+
+        Entry(BufferedImage image, long bytes) {
+            this.image = new SoftReference<>(image);
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Light grey box shown while an image loads
+     */
+    private static final class PlaceholderIcon implements Icon {
+        private final int width;
+        private final int height;
+
+        PlaceholderIcon(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            g.setColor(PLACEHOLDER_COLOR);
+            g.fillRect(x, y, width, height);
+        }
+
+        @Override
+        public int getIconWidth() { return width; }
+
+        @Override
+        public int getIconHeight() { return height; }
+    }
+
+    private static final class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "image-decoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
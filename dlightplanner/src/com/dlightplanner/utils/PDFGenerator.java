@@ -2,6 +2,9 @@ package com.dlightplanner.utils;
 
 import com.dlightplanner.models.*;
 import com.dlightplanner.services.AirportService;
+import com.dlightplanner.services.DataLoader;
+import com.dlightplanner.services.HotelRateCalendar;
+import com.dlightplanner.services.ItineraryPlan;
 import com.dlightplanner.services.LocalCostService;
 
 import java.io.FileOutputStream;
@@ -163,6 +166,32 @@ public class PDFGenerator {
         }
     }
     
+    /**
+     * Day-by-day schedule from the itinerary the user already viewed; skipped if no plan is cached
+     */
+    private static void appendItinerary(StringBuilder content, ItineraryPlan plan) {
+        if (plan == null) {
+            return;
+        }
+        DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("h:mm a");
+        content.append("DAY-BY-DAY ITINERARY\n");
+        content.append("------------------------------\n");
+        for (ItineraryPlan.Day day : plan.getDays()) {
+            content.append("Day ").append(day.getDayNumber()).append(" - ")
+                .append(day.getDate().format(DATE_FORMAT)).append("\n");
+            if (day.getVisits().isEmpty()) {
+                content.append("  Free day\n");
+            }
+            for (ItineraryPlan.Visit visit : day.getVisits()) {
+                content.append(String.format("  %s - %s  %s\n",
+                    visit.getTimeSlot().getStartTime().format(timeFormat),
+                    visit.getTimeSlot().getEndTime().format(timeFormat),
+                    visit.getSpot().getName()));
+            }
+        }
+        content.append("\n");
+    }
+    
     private static StringBuilder buildPDFContent(FlightSearchRequest request, Flight outbound,
                                                 Flight returnFlight, Hotel hotel,
                                                 List<TouristSpot> spots, LocalDate checkIn,
@@ -176,11 +205,7 @@ public class PDFGenerator {
         content.append("TRIP BOOKING CONFIRMATION\n");
         content.append("==================================================\n\n");
         
-        String cityName = airportService.getAirports().stream()
-            .filter(a -> a.getIata().equalsIgnoreCase(destCode))
-            .map(Airport::getCity)
-            .findFirst()
-            .orElse(destCode);
+        String cityName = airportService.getCityName(destCode);
         
         content.append("Destination: ").append(cityName).append("\n");
         content.append("Check-in: ").append(checkIn.format(DATE_FORMAT)).append("\n");
@@ -253,15 +278,13 @@ public class PDFGenerator {
         content.append("HOTEL COSTS\n");
         content.append("------------------------------\n");
         if (hotel != null) {
-            long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
-            if (nights < 1) nights = 1;
-            
-            double pricePerNight = hotel.getPricePerNight();
-            double hotelTotal = pricePerNight * nights;
+            HotelRateCalendar.StayQuote quote = DataLoader.getInstance().getHotelService()
+                    .quoteStay(hotel, checkIn, checkOut);
+            double hotelTotal = quote.getTotalPrice();
             
             content.append("Hotel: ").append(hotel.getName()).append("\n");
-            content.append(String.format("Price per night: ₹%,.0f\n", pricePerNight));
-            content.append("Number of nights: ").append(nights).append("\n");
+            content.append(String.format("Avg. price per night: ₹%,.0f\n", quote.getAverageNightlyRate()));
+            content.append("Number of nights: ").append(quote.getNights()).append("\n");
             content.append(String.format("Total Hotel Cost: ₹%,.0f\n\n", hotelTotal));
             totalCost += hotelTotal;
         } else {
@@ -289,6 +312,11 @@ public class PDFGenerator {
             content.append("Total Tourist Spots Cost: ₹0\n\n");
         }
 
+        if (spots != null && !spots.isEmpty()) {
+            appendItinerary(content, DataLoader.getInstance().getItineraryPlanCache().get(
+                    ItineraryPlan.Key.of(destCode, hotel, spots, checkIn, checkOut)));
+        }
+
         if (request != null) {
             content.append("LOCAL FOOD COSTS\n");
             content.append("------------------------------\n");
@@ -0,0 +1,212 @@
+package com.dlightplanner.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Thumbnail Store - scaled copies of the images under resources/images, kept on disk so
+ * each size is generated once instead of decoding the full-size photo on every run.
+ *
+ * Thumbnails are named by the SHA-1 of the source file and the variant (e.g. "200x150"),
+ * so a changed source gets new thumbnails and identical files share them. index.properties
+ * maps each source path to its length, modification time and hash, so sources are only
+ * re-hashed when they change. Opaque thumbnails are stored as JPEG, others as PNG.
+ *
+ * ImageUtils fills the store as it decodes; run main() to generate every size the pages
+ * show ahead of time.
+ */
+public class ThumbnailStore {
+    public static final String DEFAULT_DIR = "resources/thumbnails";
+    public static final String IMAGES_DIR = "resources/images";
+
+    private static final String INDEX_FILE = "index.properties";
+    private static final float JPEG_QUALITY = 0.9f;
+
+    private static final ThumbnailStore DEFAULT = new ThumbnailStore(DEFAULT_DIR);
+
+    private final Path dir;
+    private final Properties index = new Properties();
+    private boolean writeFailed;
+
+    public ThumbnailStore(String dir) {
+        this.dir = Paths.get(dir);
+        Path indexPath = this.dir.resolve(INDEX_FILE);
+        if (Files.isRegularFile(indexPath)) {
+            try (InputStream in = Files.newInputStream(indexPath)) {
+                index.load(in);
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable thumbnail index: " + e.getMessage());
+                index.clear();
+            }
+        }
+    }
+
+    public static ThumbnailStore getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * The stored thumbnail of a source image, or null if there is none for its current contents
+     */
+    public BufferedImage load(String sourcePath, String variant) {
+        String hash = currentHash(sourcePath);
+        if (hash == null) {
+            return null;
+        }
+        for (String extension : new String[]{".jpg", ".png"}) {
+            File file = dir.resolve(hash + "-" + variant + extension).toFile();
+            if (file.isFile()) {
+                try {
+                    return ImageIO.read(file);
+                } catch (IOException e) {
+                    System.err.println("Ignoring unreadable thumbnail " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Store a thumbnail of a source image; sourceBytes are the source file's contents
+     */
+    public void save(String sourcePath, byte[] sourceBytes, String variant, BufferedImage thumbnail) {
+        try {
+            Files.createDirectories(dir);
+            String hash = sha1(sourceBytes);
+            boolean opaque = !thumbnail.getColorModel().hasAlpha();
+            Path target = dir.resolve(hash + "-" + variant + (opaque ? ".jpg" : ".png"));
+            Path temp = Files.createTempFile(dir, "thumb", ".tmp");
+            if (opaque) {
+                writeJpeg(thumbnail, temp);
+            } else {
+                ImageIO.write(thumbnail, "png", temp.toFile());
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            remember(sourcePath, hash);
+        } catch (IOException e) {
+            synchronized (this) {
+                if (!writeFailed) {
+                    writeFailed = true;
+                    System.err.println("Failed to write thumbnails to " + dir + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash recorded for the source if the file has not changed since, else null
+     */
+    private synchronized String currentHash(String sourcePath) {
+        String entry = index.getProperty(sourcePath);
+        if (entry == null) {
+            return null;
+        }
+        String[] parts = entry.split(",");
+        File source = new File(sourcePath);
+        if (parts.length != 3 || !source.isFile()
+                || !parts[0].equals(Long.toString(source.length()))
+                || !parts[1].equals(Long.toString(source.lastModified()))) {
+            return null;
+        }
+        return parts[2];
+    }
+
+    private synchronized void remember(String sourcePath, String hash) throws IOException {
+        File source = new File(sourcePath);
+        String entry = source.length() + "," + source.lastModified() + "," + hash;
+        if (entry.equals(index.getProperty(sourcePath))) {
+            return;
+        }
+        index.setProperty(sourcePath, entry);
+        Path temp = Files.createTempFile(dir, "index", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            index.store(out, "Thumbnail source index: path = length,lastModified,sha1");
+        }
+        Files.move(temp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static String sha1(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder(40);
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(bytes)) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE has SHA-1
+        }
+    }
+
+    /**
+     * Generate the thumbnails the pages show for every image under resources/images:
+     * hotels 250x180, tourist spots 200x150, airline logos 90x60, city detail tabs 300x250,
+     * and city cards 200x150 (home) and 280x200 (quiz, aspect ratio kept)
+     * Usage: ThumbnailStore
+     */
+    public static void main(String[] args) throws IOException {
+        List<Path> images = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(Paths.get(IMAGES_DIR))) {
+            files.filter(Files::isRegularFile).forEach(images::add);
+        }
+
+        long start = System.currentTimeMillis();
+        int generated = 0;
+        int unreadable = 0;
+        for (Path image : images) {
+            String path = image.toString().replace(File.separatorChar, '/');
+            String folder = image.getParent().getFileName().toString();
+            boolean ok;
+            if (image.getParent().equals(Paths.get(IMAGES_DIR))) {
+                ok = ImageUtils.getScaled(path, 200, 150, ImageUtils.Fit.STRETCH) != null
+                        & ImageUtils.getScaled(path, 280, 200, ImageUtils.Fit.CONTAIN) != null;
+            } else if (folder.equals("hotels")) {
+                ok = ImageUtils.getScaled(path, 250, 180, ImageUtils.Fit.STRETCH) != null;
+            } else if (folder.equals("tourist_spots")) {
+                ok = ImageUtils.getScaled(path, 200, 150, ImageUtils.Fit.STRETCH) != null;
+            } else if (folder.equals("airlines")) {
+                ok = ImageUtils.getScaled(path, 90, 60, ImageUtils.Fit.STRETCH) != null;
+            } else {
+                ok = ImageUtils.getScaled(path, 300, 250, ImageUtils.Fit.STRETCH) != null;
+            }
+            if (ok) {
+                generated++;
+            } else {
+                unreadable++;
+            }
+            ImageUtils.clearCache(); // keep memory flat; the thumbnails are on disk now
+        }
+        System.out.println("Thumbnails for " + generated + " images written to " + DEFAULT_DIR + " in "
+                + (System.currentTimeMillis() - start) + " ms (" + unreadable + " unreadable)");
+    }
+}